@@ -0,0 +1,44 @@
+package guru.springframework;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The application without its web server, started once per benchmark run on the bootstrap recipes. Services are
+ * measured with their real repositories, caches and transactions instead of mocks.
+ */
+@State(Scope.Benchmark)
+public class RecipeApplicationState {
+
+    private Path imageLocation;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        imageLocation = Files.createTempDirectory("recipe-images-benchmark");
+        context = new SpringApplicationBuilder(Spring5RecipeAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.guru=INFO", "--recipe.images.location=" + imageLocation);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(imageLocation);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,178 @@
+package guru.springframework.converters;
+
+import guru.springframework.commands.CategoryCommand;
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.NotesCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Note;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+
+/**
+ * The recipe converters as they were written by hand before they were generated, kept as the baseline of
+ * {@link RecipeConverterComparisonBenchmark}.
+ */
+final class HandWrittenConverters {
+
+    private HandWrittenConverters() {
+    }
+
+    static RecipeCommand toCommand(Recipe source) {
+        if (source == null) {
+            return null;
+        }
+
+        final RecipeCommand command = new RecipeCommand();
+        command.setId(source.getId());
+        command.setVersion(source.getVersion());
+        command.setCookTime(source.getCookTime());
+        command.setPrepTime(source.getPrepTime());
+        command.setDescription(source.getDescription());
+        command.setDifficulty(source.getDifficulty());
+        command.setDirections(source.getDirections());
+        command.setServings(source.getServings());
+        command.setSource(source.getSource());
+        command.setUrl(source.getUrl());
+        command.setNotes(toCommand(source.getNote()));
+
+        if (source.getCategories() != null && source.getCategories().size() > 0){
+            source.getCategories()
+                    .forEach((Category category) -> command.getCategories().add(toCommand(category)));
+        }
+
+        if (source.getIngredients() != null && source.getIngredients().size() > 0){
+            source.getIngredients()
+                    .forEach(ingredient -> command.getIngredients().add(toCommand(ingredient)));
+        }
+
+        return command;
+    }
+
+    static Recipe toRecipe(RecipeCommand source) {
+        if (source == null) {
+            return null;
+        }
+
+        final Recipe recipe = new Recipe();
+        recipe.setId(source.getId());
+        recipe.setVersion(source.getVersion());
+        recipe.setCookTime(source.getCookTime());
+        recipe.setPrepTime(source.getPrepTime());
+        recipe.setDescription(source.getDescription());
+        recipe.setDifficulty(source.getDifficulty());
+        recipe.setDirections(source.getDirections());
+        recipe.setServings(source.getServings());
+        recipe.setSource(source.getSource());
+        recipe.setUrl(source.getUrl());
+        recipe.setNotes(toNote(source.getNotes()));
+
+        if (source.getCategories() != null && source.getCategories().size() > 0){
+            source.getCategories()
+                    .forEach( category -> recipe.getCategories().add(toCategory(category)));
+        }
+
+        if (source.getIngredients() != null && source.getIngredients().size() > 0){
+            source.getIngredients()
+                    .forEach(ingredient -> recipe.addIngredient(toIngredient(ingredient)));
+        }
+
+        return recipe;
+    }
+
+    private static IngredientCommand toCommand(Ingredient ingredient) {
+        if (ingredient == null) {
+            return null;
+        }
+
+        IngredientCommand ingredientCommand = new IngredientCommand();
+        ingredientCommand.setId(ingredient.getId());
+        if (ingredient.getRecipe() != null) {
+            ingredientCommand.setRecipeId(ingredient.getRecipe().getId());
+        }
+        ingredientCommand.setAmount(ingredient.getAmount());
+        ingredientCommand.setDescription(ingredient.getDescription());
+        ingredientCommand.setUnitOfMeasure(toCommand(ingredient.getUom()));
+        return ingredientCommand;
+    }
+
+    private static Ingredient toIngredient(IngredientCommand source) {
+        if (source == null) {
+            return null;
+        }
+
+        final Ingredient ingredient = new Ingredient();
+        ingredient.setId(source.getId());
+        ingredient.setAmount(source.getAmount());
+        ingredient.setDescription(source.getDescription());
+        ingredient.setUom(toUnitOfMeasure(source.getUnitOfMeasure()));
+        return ingredient;
+    }
+
+    private static UnitOfMeasureCommand toCommand(UnitOfMeasure unitOfMeasure) {
+        if (unitOfMeasure != null) {
+            final UnitOfMeasureCommand uomc = new UnitOfMeasureCommand();
+            uomc.setId(unitOfMeasure.getId());
+            uomc.setDescription(unitOfMeasure.getDescription());
+            return uomc;
+        }
+        return null;
+    }
+
+    private static UnitOfMeasure toUnitOfMeasure(UnitOfMeasureCommand source) {
+        if (source == null) {
+            return null;
+        }
+
+        final UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(source.getId());
+        uom.setDescription(source.getDescription());
+        return uom;
+    }
+
+    private static CategoryCommand toCommand(Category source) {
+        if (source == null) {
+            return null;
+        }
+
+        final CategoryCommand categoryCommand = new CategoryCommand();
+        categoryCommand.setId(source.getId());
+        categoryCommand.setDescription(source.getDescription());
+        return categoryCommand;
+    }
+
+    private static Category toCategory(CategoryCommand source) {
+        if (source == null) {
+            return null;
+        }
+
+        final Category category = new Category();
+        category.setId(source.getId());
+        category.setDescription(source.getDescription());
+        return category;
+    }
+
+    private static NotesCommand toCommand(Note source) {
+        if (source == null) {
+            return null;
+        }
+
+        final NotesCommand notesCommand = new NotesCommand();
+        notesCommand.setId(source.getId());
+        notesCommand.setRecipeNotes(source.getRecipeNotes());
+        return notesCommand;
+    }
+
+    private static Note toNote(NotesCommand source) {
+        if(source == null) {
+            return null;
+        }
+
+        final Note notes = new Note();
+        notes.setId(source.getId());
+        notes.setRecipeNotes(source.getRecipeNotes());
+        return notes;
+    }
+}
@@ -0,0 +1,95 @@
+package guru.springframework.converters;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Note;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated converters against the hand-written ones they replaced, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeConverterComparisonBenchmark {
+
+    @Param({"10", "100"})
+    int ingredients;
+
+    private RecipeToRecipeCommand toCommand;
+    private RecipeCommandToRecipe toRecipe;
+    private Recipe recipe;
+    private RecipeCommand command;
+
+    @Setup
+    public void setUp() {
+        toCommand = new RecipeToRecipeCommandImpl(new CategoryToCategoryCommandImpl(),
+                new IngredientToIngredientCommandImpl(new UnitOfMeasureToUnitOfMeasureCommandImpl()),
+                new NotesToNotesCommandImpl());
+        toRecipe = new RecipeCommandToRecipeImpl(new CategoryCommandToCategoryImpl(),
+                new IngredientCommandToIngredientImpl(new UnitOfMeasureCommandToUnitOfMeasureImpl()),
+                new NotesCommandToNotesImpl());
+
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(1L);
+        uom.setDescription("Teaspoon");
+        Category category = new Category();
+        category.setId(1L);
+        category.setDescription("Mexican");
+        Note note = new Note();
+        note.setRecipeNotes("notes");
+
+        recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setDescription("Perfect Guacamole");
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setNotes(note);
+        recipe.getCategories().add(category);
+        for (long i = 0; i < ingredients; i++) {
+            Ingredient ingredient = new Ingredient("ingredient " + i, BigDecimal.ONE, uom);
+            ingredient.setId(i);
+            recipe.addIngredient(ingredient);
+        }
+        command = toCommand.convert(recipe);
+    }
+
+    @Benchmark
+    public RecipeCommand toCommandGenerated() {
+        return toCommand.convert(recipe);
+    }
+
+    @Benchmark
+    public RecipeCommand toCommandHandWritten() {
+        return HandWrittenConverters.toCommand(recipe);
+    }
+
+    @Benchmark
+    public Recipe toRecipeGenerated() {
+        return toRecipe.convert(command);
+    }
+
+    @Benchmark
+    public Recipe toRecipeHandWritten() {
+        return HandWrittenConverters.toRecipe(command);
+    }
+}
@@ -0,0 +1,80 @@
+package guru.springframework.converters;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Note;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+
+/**
+ * Throughput of the shared converter singleton with one thread and with one thread per core. Without a lock
+ * in the converter the all cores score grows with the number of cores instead of staying at the single thread one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeToRecipeCommandBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int ingredients;
+
+    private RecipeToRecipeCommand converter;
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() {
+        converter = new RecipeToRecipeCommandImpl(new CategoryToCategoryCommandImpl(),
+                new IngredientToIngredientCommandImpl(new UnitOfMeasureToUnitOfMeasureCommandImpl()),
+                new NotesToNotesCommandImpl());
+
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(1L);
+        uom.setDescription("Teaspoon");
+        Category category = new Category();
+        category.setId(1L);
+        category.setDescription("Mexican");
+        Note note = new Note();
+        note.setRecipeNotes("notes");
+
+        recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setDescription("Perfect Guacamole");
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setNotes(note);
+        recipe.getCategories().add(category);
+        for (long i = 0; i < ingredients; i++) {
+            Ingredient ingredient = new Ingredient("ingredient " + i, BigDecimal.ONE, uom);
+            ingredient.setId(i);
+            recipe.addIngredient(ingredient);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RecipeCommand convertOneThread() {
+        return converter.convert(recipe);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public RecipeCommand convertAllCores() {
+        return converter.convert(recipe);
+    }
+}
@@ -0,0 +1,37 @@
+package guru.springframework.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the difficulty column, done for every recipe row Hibernate loads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DifficultyConverterBenchmark {
+
+    // first and last of the codes
+    @Param({"E", "H"})
+    String code;
+
+    private final DifficultyConverter converter = new DifficultyConverter();
+
+    @Benchmark
+    public Difficulty convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(code);
+    }
+}
@@ -0,0 +1,95 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pantry queries against a synthetic catalogue. Ingredient popularity is skewed the way real recipes are, a
+ * handful of ingredients (think salt and onion) show up in a large share of the recipes. A stocked pantry has
+ * those staples and matches nearly every recipe, a selective one only a few less common items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PantryIndexBenchmark {
+
+    private static final int INGREDIENTS = 2000;
+    private static final String[] MODIFIERS = {"fresh", "chopped", "dried", "ripe", "ground", "sliced"};
+
+    @Param({"100000"})
+    int recipes;
+
+    @Param({"ALL", "MOST"})
+    PantryMatchMode mode;
+
+    @Param({"stocked", "selective"})
+    String stock;
+
+    private final PantryIndex pantryIndex = new PantryIndex();
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private List<String> pantry;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (long id = 1; id <= recipes; id++) {
+            RecipeCommand recipe = new RecipeCommand();
+            recipe.setId(id);
+            recipe.setDescription("Recipe " + id);
+            for (int i = 5 + random.nextInt(11); i > 0; i--) {
+                IngredientCommand ingredient = new IngredientCommand();
+                ingredient.setDescription(MODIFIERS[random.nextInt(MODIFIERS.length)] + " ingredient"
+                        + skewed(random));
+                recipe.getIngredients().add(ingredient);
+            }
+            pantryIndex.index(recipe);
+        }
+
+        pantry = new ArrayList<>();
+        if ("stocked".equals(stock)) {
+            // the staples and some less common items
+            for (int i = 0; i < 15; i++) {
+                pantry.add("ingredient" + i);
+            }
+            for (int i = 0; i < 15; i++) {
+                pantry.add("ingredient" + (50 + i * 7));
+            }
+        } else {
+            for (int i = 0; i < 5; i++) {
+                pantry.add("ingredient" + (300 + i * 400));
+            }
+        }
+    }
+
+    @Benchmark
+    public Page<PantryMatch> search() {
+        return pantryIndex.search(pantry, mode, pageable);
+    }
+
+    // roughly zipfian, ingredient 0 is the most common
+    private static int skewed(Random random) {
+        return (int) Math.min(INGREDIENTS - 1, Math.floor(Math.pow(INGREDIENTS, random.nextDouble())) - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package guru.springframework.services;
+
+import guru.springframework.RecipeApplicationState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploading an image of the given size to a bootstrap recipe, into the configured image store. Every upload
+ * replaces the previous one, so the store holds a single image however long the benchmark runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImageServiceBenchmark {
+
+    @Param({"102400", "1048576", "10485760"})
+    int bytes;
+
+    private ImageService imageService;
+    private MockMultipartFile file;
+
+    @Setup
+    public void setUp(RecipeApplicationState application) {
+        imageService = application.getBean(ImageService.class);
+
+        // not a decodable image, the thumbnail work that follows each upload stops at the header
+        byte[] content = new byte[bytes];
+        new Random(42).nextBytes(content);
+        file = new MockMultipartFile("imagefile", "image.jpg", "image/jpeg", content);
+    }
+
+    @Benchmark
+    public void saveImageFile() {
+        imageService.saveImageFile(1L, file);
+    }
+}
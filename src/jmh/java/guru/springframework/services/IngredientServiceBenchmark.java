@@ -0,0 +1,40 @@
+package guru.springframework.services;
+
+import guru.springframework.RecipeApplicationState;
+import guru.springframework.commands.IngredientCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one ingredient of a bootstrap recipe for the ingredient form, through the query and second level cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IngredientServiceBenchmark {
+
+    private IngredientService ingredientService;
+
+    @Setup
+    public void setUp(RecipeApplicationState application) {
+        ingredientService = application.getBean(IngredientService.class);
+    }
+
+    @Benchmark
+    public IngredientCommand findByRecipeIdAndIngredientId() {
+        return ingredientService.findByRecipeIdAndIngredientId(1L, 1L);
+    }
+}
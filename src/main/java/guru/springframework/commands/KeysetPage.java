@@ -0,0 +1,17 @@
+package guru.springframework.commands;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) paginated listing. The next page is requested with
+ * {@code after=nextAfter}, {@code nextAfter} is {@code null} on the last page.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final Long nextAfter;
+}
@@ -0,0 +1,19 @@
+package guru.springframework.commands;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of a bulk recipe import, with the throughput it was written at.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipeImportReport {
+    private final long imported;
+    private final int chunks;
+    private final long elapsedMillis;
+
+    public double getRecipesPerSecond() {
+        return elapsedMillis == 0 ? imported * 1000d : imported * 1000d / elapsedMillis;
+    }
+}
@@ -0,0 +1,15 @@
+package guru.springframework.commands;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@RequiredArgsConstructor
+public class ScaledIngredient {
+    private final Long id;
+    private final String description;
+    private final BigDecimal amount;
+    private final String unitOfMeasure;
+}
@@ -0,0 +1,20 @@
+package guru.springframework.commands;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The ingredients of a recipe rescaled to a number of servings. A recipe without servings can't be scaled, its
+ * amounts are returned as they are and {@code servings} stays {@code null}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScaledRecipe {
+    private final Long id;
+    private final String description;
+    private final Integer originalServings;
+    private final Integer servings;
+    private final List<ScaledIngredient> ingredients;
+}
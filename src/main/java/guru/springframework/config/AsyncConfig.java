@@ -0,0 +1,30 @@
+package guru.springframework.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded pool for deriving image thumbnails. When the queue is full further work is dropped,
+     * requests for a missing thumbnail fall back to the original image.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(@Value("${recipe.images.thumbnail-threads}") int threads,
+                                                    @Value("${recipe.images.thumbnail-queue}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("Thumbnail queue full, skipping " + task));
+        return executor;
+    }
+}
@@ -0,0 +1,19 @@
+package guru.springframework.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reference data and rendered page caches, backed by Caffeine. Cache names and eviction are set through the spring.cache.*
+ * properties.
+ */
+@EnableCaching
+@Configuration
+public class CachingConfig {
+
+    public static final String UNITS_OF_MEASURE = "unitsOfMeasure";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_RECIPE_COUNTS = "categoryRecipeCounts";
+    public static final String RENDERED_PAGES = "renderedPages";
+    public static final String SCALING_PLANS = "scalingPlans";
+}
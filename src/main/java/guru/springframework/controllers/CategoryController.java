@@ -0,0 +1,35 @@
+package guru.springframework.controllers;
+
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.services.CategoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@Slf4j
+@Controller
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    public CategoryController(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    // page, size and sort request parameters like the index page, e.g. /category/3/recipes?sort=description
+    @GetMapping("/category/{id}/recipes")
+    public String listRecipes(@PathVariable Long id, Model model,
+                              @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        log.debug("Getting recipes of category id: " + id);
+        Page<RecipeSummary> page = categoryService.getRecipeSummaries(id, pageable);
+        model.addAttribute("category", categoryService.findById(id));
+        model.addAttribute("recipes", page.getContent());
+        model.addAttribute("page", page);
+        return "category/recipes";
+    }
+}
@@ -1,14 +1,21 @@
 package guru.springframework.controllers;
 
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.services.ImageService;
 import guru.springframework.services.RecipeService;
+import guru.springframework.storage.ThumbnailGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RequiredArgsConstructor
@@ -29,4 +36,54 @@ public class ImageController {
         return "redirect:/recipe/" + recipeId + "/show";
     }
 
+    /**
+     * Serves the stored image, or with {@code size} one of its thumbnails. Every upload gets its own
+     * storage key, so the key is a strong ETag: conditional requests for the original are answered
+     * with a 304 before the image store is touched. Until a thumbnail has been generated the original
+     * is served in its place. Range requests are answered with a 206 by Spring's resource region support.
+     */
+    @GetMapping("recipe/{recipeId}/recipeimage")
+    public ResponseEntity<Resource> renderImage(@PathVariable Long recipeId,
+                                                @RequestParam(required = false) Integer size,
+                                                WebRequest request){
+        ImageMetadata image = imageService.findImageMetadata(recipeId);
+        if (image == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String variant = image.getStorageKey();
+        String contentType = image.getContentType();
+        Resource resource = null;
+
+        if (size != null) {
+            resource = imageService.loadThumbnail(image, size);
+            if (resource != null) {
+                variant = ThumbnailGenerator.thumbnailKey(variant, size);
+                contentType = ThumbnailGenerator.CONTENT_TYPE;
+            }
+        }
+
+        String etag = "\"" + variant.replace('/', '-') + "\"";
+        long lastModified = image.getLastModified().toEpochMilli();
+
+        if (request.checkNotModified(etag, lastModified)) {
+            // status and validators are already set on the response
+            return null;
+        }
+
+        if (resource == null) {
+            resource = imageService.loadImage(image);
+        }
+        if (resource == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(resource);
+    }
+
 }
@@ -1,31 +1,54 @@
 package guru.springframework.controllers;
 
-import guru.springframework.domain.Category;
-import guru.springframework.domain.UnitOfMeasure;
-import guru.springframework.repositories.CategoryRepository;
-import guru.springframework.repositories.UnitOfMeasureRepository;
+import guru.springframework.commands.KeysetPage;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.search.FacetFilter;
+import guru.springframework.search.RecipeFacetIndex;
 import guru.springframework.services.RecipeService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
-
-import java.util.Optional;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Slf4j
 @Controller
 public class IndexController {
 
     private final RecipeService recipeService;
+    private final RecipeFacetIndex facetIndex;
 
-    public IndexController(RecipeService recipeService) {
+    public IndexController(RecipeService recipeService, RecipeFacetIndex facetIndex) {
         this.recipeService = recipeService;
+        this.facetIndex = facetIndex;
     }
 
+    // page, size and sort request parameters, e.g. /index?page=2&size=20&sort=description,asc, and the facets
+    // e.g. /index?category=3&difficulty=EASY&prep=UNDER_15. Filtered lists are always ordered by id.
     @RequestMapping({"", "/", "/index"})
-    public String getIndexPage(Model model){
+    public String getIndexPage(Model model, FacetFilter filter,
+                               @PageableDefault(size = 20, sort = "id") Pageable pageable){
         log.debug("Getting Index page");
-        model.addAttribute("recipes", recipeService.getRecipes());
+        Page<RecipeSummary> page = filter.isEmpty() ? recipeService.getRecipeSummaries(pageable)
+                : recipeService.getRecipeSummariesIn(facetIndex.search(filter, pageable));
+        model.addAttribute("recipes", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("facets", facetIndex.count(filter));
+        return "index";
+    }
+
+    // keyset pagination for walking the whole catalogue, e.g. /index?after=120&limit=20
+    @RequestMapping(value = {"", "/", "/index"}, params = "after")
+    public String getIndexPageAfter(Model model, @RequestParam Long after,
+                                    @RequestParam(defaultValue = "20") int limit){
+        log.debug("Getting Index page after recipe id: " + after);
+        KeysetPage<RecipeSummary> page = recipeService.getRecipeSummariesAfter(after, limit);
+        model.addAttribute("recipes", page.getContent());
+        model.addAttribute("nextAfter", page.getNextAfter());
+        model.addAttribute("limit", limit);
         return "index";
     }
 }
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Controller;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @Controller
@@ -22,9 +23,13 @@ public class IngredientController {
 
     @GetMapping
     @RequestMapping("/recipe/{recipeId}/ingredients")
-    public String listIngredients(@PathVariable Long recipeId, Model model){
+    public String listIngredients(@PathVariable Long recipeId, Model model, WebRequest request){
         log.debug("Getting ingredient list for recipe id: " + recipeId);
 
+        if (RecipeETag.checkNotModified(request, recipeId, recipeService)) {
+            return null;
+        }
+
         // use command object to avoid lazy load errors in Thymeleaf.
         // It's an anti pattern to transfer persistent entities between layers - more specifically between
         // the presentation and backend layers. A Command object is a specialized DTO for MVC.
@@ -39,7 +44,10 @@ public class IngredientController {
     @RequestMapping("recipe/{recipeId}/ingredient/{ingredientId}/show")
     public String showRecipeIngredient(@PathVariable Long recipeId,
                                        @PathVariable Long ingredientId,
-                                       Model model){
+                                       Model model, WebRequest request){
+        if (RecipeETag.checkNotModified(request, recipeId, recipeService)) {
+            return null;
+        }
 
         model.addAttribute("ingredient", ingredientService.findByRecipeIdAndIngredientId(recipeId, ingredientId));
         return "recipe/ingredient/show";
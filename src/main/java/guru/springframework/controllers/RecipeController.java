@@ -1,10 +1,15 @@
 package guru.springframework.controllers;
 
 import guru.springframework.commands.RecipeCommand;
+import guru.springframework.services.RecipeScalingService;
 import guru.springframework.services.RecipeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.ModelAndView;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -12,14 +17,27 @@ import lombok.extern.slf4j.Slf4j;
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final RecipeScalingService recipeScalingService;
 
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, RecipeScalingService recipeScalingService) {
         this.recipeService = recipeService;
+        this.recipeScalingService = recipeScalingService;
     }
 
+    // ?servings=N shows the ingredient amounts for N servings, taken from the cached scaling plan
     @GetMapping("/recipe/{id}/show")
-    public String showById(@PathVariable Long id, Model model){
-        model.addAttribute("recipe", recipeService.findById(id));
+    public String showById(@PathVariable Long id, @RequestParam(required = false) Integer servings, Model model,
+                           WebRequest request){
+        if (RecipeETag.checkNotModified(request, id, recipeService)) {
+            return null;
+        }
+
+        if (servings == null) {
+            model.addAttribute("recipe", recipeService.findById(id));
+        } else {
+            model.addAttribute("scaled", recipeScalingService.scale(id, servings));
+            model.addAttribute("recipe", recipeService.findWithoutIngredientsById(id));
+        }
         return "recipe/show";
     }
 
@@ -63,4 +81,19 @@ public class RecipeController {
         return  "redirect:/";
     }
 
+    /**
+     * A form rendered from an older version of the recipe was posted, show the current version instead of
+     * overwriting someone else's changes.
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ModelAndView handleConflict(ObjectOptimisticLockingFailureException exception){
+        log.debug("Stale recipe form posted: " + exception.getMessage());
+
+        ModelAndView modelAndView = new ModelAndView("recipe/recipeform");
+        modelAndView.addObject("recipe", recipeService.findCommandById((Long) exception.getIdentifier()));
+        modelAndView.addObject("conflict", true);
+        return modelAndView;
+    }
+
 }
@@ -0,0 +1,35 @@
+package guru.springframework.controllers;
+
+import guru.springframework.services.RecipeService;
+import guru.springframework.web.RenderedPageCacheFilter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * The recipe pages are derived from the recipe aggregate only, so its version is all the ETag needs.
+ */
+final class RecipeETag {
+
+    private RecipeETag() {
+    }
+
+    /**
+     * Sets the ETag for the given recipe version and checks it against {@code If-None-Match}.
+     *
+     * @return {@code true} if the response has been set to 304 and the handler should return {@code null}
+     */
+    static boolean checkNotModified(WebRequest request, Long recipeId, Long version) {
+        return version != null && request.checkNotModified("\"" + recipeId + "-" + version + "\"");
+    }
+
+    /**
+     * Same as {@link #checkNotModified(WebRequest, Long, Long)}, reusing the version the
+     * {@link RenderedPageCacheFilter} already read for this request and only querying it otherwise.
+     */
+    static boolean checkNotModified(WebRequest request, Long recipeId, RecipeService recipeService) {
+        Object version = request.getAttribute(RenderedPageCacheFilter.RECIPE_VERSION_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return checkNotModified(request, recipeId,
+                version instanceof Long ? (Long) version : recipeService.findVersionById(recipeId));
+    }
+}
@@ -0,0 +1,188 @@
+package guru.springframework.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import guru.springframework.commands.KeysetPage;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.services.IngredientService;
+import guru.springframework.services.RecipeExportService;
+import guru.springframework.services.RecipeImportService;
+import guru.springframework.services.RecipeScalingService;
+import guru.springframework.services.RecipeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON access to the recipes for clients that would otherwise scrape the pages. Every endpoint takes an optional
+ * {@code fields} parameter, e.g. {@code ?fields=id,description}, to return only those top level properties.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/recipes")
+public class RecipeRestController {
+
+    private static final TypeReference<Map<String, Object>> PROPERTIES = new TypeReference<Map<String, Object>>() {};
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private static final ObjectReader CSV_READER = CSV_MAPPER
+            .readerFor(RecipeCommand.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    // the scalar recipe columns, in the order the import reads them back
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER
+            .writerFor(RecipeCommand.class)
+            .with(JsonGenerator.Feature.IGNORE_UNKNOWN)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .with(CsvSchema.builder()
+                    .addColumns(Arrays.asList("id", "description", "prepTime", "cookTime", "servings", "source",
+                            "url", "difficulty", "directions"), CsvSchema.ColumnType.STRING)
+                    .setUseHeader(true)
+                    .build());
+
+    private final RecipeService recipeService;
+    private final IngredientService ingredientService;
+    private final RecipeImportService recipeImportService;
+    private final RecipeExportService recipeExportService;
+    private final RecipeScalingService recipeScalingService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public Page<?> listRecipes(@PageableDefault(size = 20, sort = "id") Pageable pageable,
+                               @RequestParam(required = false) Set<String> fields){
+        return recipeService.findCommands(pageable).map(recipe -> select(recipe, fields));
+    }
+
+    @GetMapping("/{id}")
+    public Object getRecipe(@PathVariable Long id, @RequestParam(required = false) Set<String> fields){
+        return select(recipeService.findCommandById(id), fields);
+    }
+
+    // the ingredients rescaled to the servings, e.g. /api/v1/recipes/1?servings=8
+    @GetMapping(value = "/{id}", params = "servings")
+    public Object getScaledRecipe(@PathVariable Long id, @RequestParam int servings,
+                                  @RequestParam(required = false) Set<String> fields){
+        return select(recipeScalingService.scale(id, servings), fields);
+    }
+
+    @GetMapping("/{id}/ingredients")
+    public Page<?> listIngredients(@PathVariable Long id,
+                                   @PageableDefault(size = 20, sort = "id") Pageable pageable,
+                                   @RequestParam(required = false) Set<String> fields){
+        return ingredientService.findByRecipeId(id, pageable).map(ingredient -> select(ingredient, fields));
+    }
+
+    /**
+     * Keyset paginated recipe listing. Start without {@code after} and pass the returned
+     * {@code nextAfter} to fetch the following page until it comes back {@code null}.
+     */
+    @GetMapping("/summaries")
+    public KeysetPage<RecipeSummary> listSummaries(@RequestParam(required = false) Long after,
+                                                   @RequestParam(defaultValue = "20") int limit){
+        return recipeService.getRecipeSummariesAfter(after, limit);
+    }
+
+    /**
+     * Bulk import from a JSON array of recipes, or one recipe per line. The body is read one recipe at a time
+     * while the previous ones are being written, so it is never held in memory as a whole.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public RecipeImportReport importJson(InputStream body) throws IOException {
+        try (MappingIterator<RecipeCommand> commands = objectMapper.readerFor(RecipeCommand.class).readValues(body)) {
+            return recipeImportService.importRecipes(commands);
+        }
+    }
+
+    /**
+     * Bulk import from CSV with a header row naming the columns, e.g. {@code description,prepTime,cookTime,
+     * servings,source,url,difficulty,directions}. Ingredients, categories and notes are only imported from JSON.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public RecipeImportReport importCsv(InputStream body) throws IOException {
+        try (MappingIterator<RecipeCommand> commands = CSV_READER.readValues(body)) {
+            return recipeImportService.importRecipes(commands);
+        }
+    }
+
+    /**
+     * Every recipe with its ingredients, categories and notes, one JSON document per line, in the format
+     * the import reads. Written while it is read from the database, so the catalogue is never held in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNdjson() {
+        return export("recipes.ndjson", MediaType.parseMediaType("application/x-ndjson"),
+                out -> objectMapper.writerFor(RecipeCommand.class)
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n")
+                        .writeValues(out));
+    }
+
+    // ?format=csv, the scalar recipe fields only, CSV has no room for the ingredients
+    @GetMapping(value = "/export", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return export("recipes.csv", MediaType.parseMediaType("text/csv"), CSV_WRITER::writeValues);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String filename, MediaType contentType,
+                                                         SequenceWriterFactory writerFactory) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = writerFactory.create(out)) {
+                recipeExportService.exportRecipes(recipe -> {
+                    try {
+                        writer.write(recipe);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .body(body);
+    }
+
+    private interface SequenceWriterFactory {
+        SequenceWriter create(OutputStream out) throws IOException;
+    }
+
+    private Object select(Object command, Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return command;
+        }
+
+        Map<String, Object> properties = objectMapper.convertValue(command, PROPERTIES);
+        properties.keySet().retainAll(fields);
+        return properties;
+    }
+}
@@ -0,0 +1,56 @@
+package guru.springframework.controllers;
+
+import guru.springframework.search.PantryIndex;
+import guru.springframework.search.PantryMatch;
+import guru.springframework.search.PantryMatchMode;
+import guru.springframework.search.RecipeSearchHit;
+import guru.springframework.search.RecipeSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Slf4j
+@Controller
+public class SearchController {
+
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final PantryIndex pantryIndex;
+
+    public SearchController(RecipeSearchIndex recipeSearchIndex, PantryIndex pantryIndex) {
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.pantryIndex = pantryIndex;
+    }
+
+    // results are ordered by relevance, a sort parameter is ignored, e.g. /recipe/search?q=chicken&page=1
+    @GetMapping("/recipe/search")
+    public String search(@RequestParam(defaultValue = "") String q, Model model,
+                         @PageableDefault(size = 20) Pageable pageable) {
+        log.debug("Searching recipes for: " + q);
+        Page<RecipeSearchHit> page = recipeSearchIndex.search(q, pageable);
+        model.addAttribute("q", q);
+        model.addAttribute("hits", page.getContent());
+        model.addAttribute("page", page);
+        return "recipe/search";
+    }
+
+    // comma separated pantry items, e.g. /recipe/pantry?items=avocado,lime,kosher salt&match=ALL
+    @GetMapping("/recipe/pantry")
+    public String pantry(@RequestParam(defaultValue = "") List<String> items,
+                         @RequestParam(defaultValue = "MOST") PantryMatchMode match, Model model,
+                         @PageableDefault(size = 20) Pageable pageable) {
+        log.debug("Matching recipes against pantry: " + items);
+        Page<PantryMatch> page = pantryIndex.search(items, match, pageable);
+        model.addAttribute("items", String.join(", ", items));
+        model.addAttribute("match", match);
+        model.addAttribute("matches", page.getContent());
+        model.addAttribute("page", page);
+        return "recipe/pantry";
+    }
+}
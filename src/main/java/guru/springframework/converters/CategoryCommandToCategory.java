@@ -2,25 +2,14 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.CategoryCommand;
 import guru.springframework.domain.Category;
-import lombok.Synchronized;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-public class CategoryCommandToCategory implements Converter<CategoryCommand, Category> {
+@Mapper(config = ConverterConfig.class)
+public interface CategoryCommandToCategory extends Converter<CategoryCommand, Category> {
 
-    @Synchronized
-    @Nullable
     @Override
-    public Category convert(CategoryCommand source) {
-        if (source == null) {
-            return null;
-        }
-
-        final Category category = new Category();
-        category.setId(source.getId());
-        category.setDescription(source.getDescription());
-        return category;
-    }
+    @Mapping(target = "recipes", ignore = true)
+    Category convert(CategoryCommand source);
 }
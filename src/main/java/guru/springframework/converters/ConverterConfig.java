@@ -0,0 +1,19 @@
+package guru.springframework.converters;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings of the converters. Their implementations are generated at compile time as Spring beans
+ * (e.g. {@code RecipeToRecipeCommandImpl}) that take the converters they delegate to in their constructor.
+ * A target property the mapping does not cover fails the build instead of silently staying empty, and a
+ * null source property leaves the target's default (such as an empty set) in place.
+ */
+@MapperConfig(componentModel = "spring",
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS)
+public interface ConverterConfig {
+}
@@ -2,31 +2,16 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.IngredientCommand;
 import guru.springframework.domain.Ingredient;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-public class IngredientCommandToIngredient implements Converter<IngredientCommand, Ingredient> {
+@Mapper(config = ConverterConfig.class, uses = UnitOfMeasureCommandToUnitOfMeasure.class)
+public interface IngredientCommandToIngredient extends Converter<IngredientCommand, Ingredient> {
 
-    private final UnitOfMeasureCommandToUnitOfMeasure uomConverter;
-
-    public IngredientCommandToIngredient(UnitOfMeasureCommandToUnitOfMeasure uomConverter) {
-        this.uomConverter = uomConverter;
-    }
-
-    @Nullable
+    // the recipe is set when the ingredient is added to it
     @Override
-    public Ingredient convert(IngredientCommand source) {
-        if (source == null) {
-            return null;
-        }
-
-        final Ingredient ingredient = new Ingredient();
-        ingredient.setId(source.getId());
-        ingredient.setAmount(source.getAmount());
-        ingredient.setDescription(source.getDescription());
-        ingredient.setUom(uomConverter.convert(source.getUnitOfMeasure()));
-        return ingredient;
-    }
+    @Mapping(target = "uom", source = "unitOfMeasure")
+    @Mapping(target = "recipe", ignore = true)
+    Ingredient convert(IngredientCommand source);
 }
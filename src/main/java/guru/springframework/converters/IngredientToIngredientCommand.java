@@ -2,35 +2,16 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.IngredientCommand;
 import guru.springframework.domain.Ingredient;
-import lombok.RequiredArgsConstructor;
-import lombok.Synchronized;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-@RequiredArgsConstructor
-public class IngredientToIngredientCommand implements Converter<Ingredient, IngredientCommand> {
+@Mapper(config = ConverterConfig.class, uses = UnitOfMeasureToUnitOfMeasureCommand.class)
+public interface IngredientToIngredientCommand extends Converter<Ingredient, IngredientCommand> {
 
-    private final UnitOfMeasureToUnitOfMeasureCommand uomConverter;
-
-    @Synchronized
-    @Nullable
+    // only the id of the recipe is read, a lazy recipe proxy is not initialized
     @Override
-    public IngredientCommand convert(Ingredient ingredient) {
-        System.out.println("ingredient: " + ingredient);
-        if (ingredient == null) {
-            return null;
-        }
-
-        IngredientCommand ingredientCommand = new IngredientCommand();
-        ingredientCommand.setId(ingredient.getId());
-        if (ingredient.getRecipe() != null) {
-            ingredientCommand.setRecipeId(ingredient.getRecipe().getId());
-        }
-        ingredientCommand.setAmount(ingredient.getAmount());
-        ingredientCommand.setDescription(ingredient.getDescription());
-        ingredientCommand.setUnitOfMeasure(uomConverter.convert(ingredient.getUom()));
-        return ingredientCommand;
-    }
+    @Mapping(target = "recipeId", source = "recipe.id")
+    @Mapping(target = "unitOfMeasure", source = "uom")
+    IngredientCommand convert(Ingredient source);
 }
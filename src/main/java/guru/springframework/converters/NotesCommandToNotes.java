@@ -2,26 +2,14 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.NotesCommand;
 import guru.springframework.domain.Note;
-import lombok.Synchronized;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
+@Mapper(config = ConverterConfig.class)
+public interface NotesCommandToNotes extends Converter<NotesCommand, Note> {
 
-@Component
-public class NotesCommandToNotes implements Converter<NotesCommand, Note> {
-
-    @Synchronized
-    @Nullable
     @Override
-    public Note convert(NotesCommand source) {
-        if(source == null) {
-            return null;
-        }
-
-        final Note notes = new Note();
-        notes.setId(source.getId());
-        notes.setRecipeNotes(source.getRecipeNotes());
-        return notes;
-    }
+    @Mapping(target = "recipe", ignore = true)
+    Note convert(NotesCommand source);
 }
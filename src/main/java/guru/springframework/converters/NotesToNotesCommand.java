@@ -2,25 +2,12 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.NotesCommand;
 import guru.springframework.domain.Note;
-import lombok.Synchronized;
+import org.mapstruct.Mapper;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-public class NotesToNotesCommand implements Converter<Note, NotesCommand>{
+@Mapper(config = ConverterConfig.class)
+public interface NotesToNotesCommand extends Converter<Note, NotesCommand> {
 
-    @Synchronized
-    @Nullable
     @Override
-    public NotesCommand convert(Note source) {
-        if (source == null) {
-            return null;
-        }
-
-        final NotesCommand notesCommand = new NotesCommand();
-        notesCommand.setId(source.getId());
-        notesCommand.setRecipeNotes(source.getRecipeNotes());
-        return notesCommand;
-    }
+    NotesCommand convert(Note source);
 }
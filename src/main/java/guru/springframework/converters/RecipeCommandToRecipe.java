@@ -1,56 +1,29 @@
 package guru.springframework.converters;
 
 import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Ingredient;
 import guru.springframework.domain.Recipe;
-import lombok.Synchronized;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-public class RecipeCommandToRecipe implements Converter<RecipeCommand, Recipe> {
+@Mapper(config = ConverterConfig.class,
+        uses = {CategoryCommandToCategory.class, IngredientCommandToIngredient.class, NotesCommandToNotes.class})
+public interface RecipeCommandToRecipe extends Converter<RecipeCommand, Recipe> {
 
-    private final CategoryCommandToCategory categoryConverter;
-    private final IngredientCommandToIngredient ingredientConverter;
-    private final NotesCommandToNotes notesConverter;
-
-    public RecipeCommandToRecipe(CategoryCommandToCategory categoryConverter, IngredientCommandToIngredient ingredientConverter,
-                                 NotesCommandToNotes notesConverter) {
-        this.categoryConverter = categoryConverter;
-        this.ingredientConverter = ingredientConverter;
-        this.notesConverter = notesConverter;
-    }
-
-    @Synchronized
-    @Nullable
+    // notes go through Recipe.setNotes, which also links the note back to the recipe
     @Override
-    public Recipe convert(RecipeCommand source) {
-        if (source == null) {
-            return null;
+    @Mapping(target = "note", ignore = true)
+    @Mapping(target = "image", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    Recipe convert(RecipeCommand source);
+
+    @AfterMapping
+    default void linkIngredients(@MappingTarget Recipe recipe) {
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            ingredient.setRecipe(recipe);
         }
-
-        final Recipe recipe = new Recipe();
-        recipe.setId(source.getId());
-        recipe.setCookTime(source.getCookTime());
-        recipe.setPrepTime(source.getPrepTime());
-        recipe.setDescription(source.getDescription());
-        recipe.setDifficulty(source.getDifficulty());
-        recipe.setDirections(source.getDirections());
-        recipe.setServings(source.getServings());
-        recipe.setSource(source.getSource());
-        recipe.setUrl(source.getUrl());
-        recipe.setNotes(notesConverter.convert(source.getNotes()));
-
-        if (source.getCategories() != null && source.getCategories().size() > 0){
-            source.getCategories()
-                    .forEach( category -> recipe.getCategories().add(categoryConverter.convert(category)));
-        }
-
-        if (source.getIngredients() != null && source.getIngredients().size() > 0){
-            source.getIngredients()
-                    .forEach(ingredient -> recipe.getIngredients().add(ingredientConverter.convert(ingredient)));
-        }
-
-        return recipe;
     }
 }
@@ -2,25 +2,12 @@ package guru.springframework.converters;
 
 import guru.springframework.commands.UnitOfMeasureCommand;
 import guru.springframework.domain.UnitOfMeasure;
-import lombok.Synchronized;
+import org.mapstruct.Mapper;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.lang.Nullable;
-import org.springframework.stereotype.Component;
 
-@Component
-public class UnitOfMeasureCommandToUnitOfMeasure implements Converter<UnitOfMeasureCommand, UnitOfMeasure>{
+@Mapper(config = ConverterConfig.class)
+public interface UnitOfMeasureCommandToUnitOfMeasure extends Converter<UnitOfMeasureCommand, UnitOfMeasure> {
 
-    @Synchronized
-    @Nullable
     @Override
-    public UnitOfMeasure convert(UnitOfMeasureCommand source) {
-        if (source == null) {
-            return null;
-        }
-
-        final UnitOfMeasure uom = new UnitOfMeasure();
-        uom.setId(source.getId());
-        uom.setDescription(source.getDescription());
-        return uom;
-    }
+    UnitOfMeasure convert(UnitOfMeasureCommand source);
 }
@@ -0,0 +1,27 @@
+package guru.springframework.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import java.sql.Blob;
+
+/**
+ * Image content for the database backed image store. Kept in its own table so the bytes are
+ * never read together with a recipe.
+ */
+@Getter
+@Setter
+@Entity
+public class ImageBlob {
+
+    @Id
+    private String storageKey;
+
+    private Long contentLength;
+
+    @Lob
+    private Blob content;
+}
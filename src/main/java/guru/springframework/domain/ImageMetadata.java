@@ -0,0 +1,29 @@
+package guru.springframework.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.time.Instant;
+
+/**
+ * Reference to an image held in an {@link guru.springframework.storage.ImageStore}.
+ * Lives in its own table and is fetched lazily, so reading a recipe never touches it.
+ */
+@Getter
+@Setter
+@Entity
+public class ImageMetadata {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String storageKey;
+    private String contentType;
+    private Long contentLength;
+    private Instant lastModified;
+}
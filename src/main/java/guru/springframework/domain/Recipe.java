@@ -2,19 +2,36 @@ package guru.springframework.domain;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Getter
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_recipe_difficulty", columnList = "difficulty"),
+        @Index(name = "idx_recipe_prep_time", columnList = "prepTime"),
+        @Index(name = "idx_recipe_cook_time", columnList = "cookTime")})
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // automatic generation of sequence
+    // pooled sequence instead of IDENTITY so inserts can be JDBC batched, see hibernate.jdbc.batch_size
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
+
+    // bumped on every write to the recipe aggregate, also serves as the ETag of the recipe pages
+    @Version
+    private Long version;
+
+    private Instant lastModified;
+
     private String description;
     private Integer prepTime;
     private Integer cookTime;
@@ -28,24 +45,40 @@ public class Recipe {
     //@Enumerated(value = EnumType.STRING)
     private Difficulty difficulty;
 
-    @Lob
-    private Byte[] image;
+    // owning side, so Hibernate can hand out a proxy and only the foreign key is read with the recipe
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    private ImageMetadata image;
 
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval=true)
     private Note note;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "recipe")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "recipe", orphanRemoval = true)
     private Set<Ingredient> ingredients = new HashSet<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(name = "recipe_category",
             joinColumns = @JoinColumn(name = "recipe_id"),
-    inverseJoinColumns = @JoinColumn(name = "category_id"))
+    inverseJoinColumns = @JoinColumn(name = "category_id"),
+            // the primary key leads with recipe_id, this one serves the lookups by category
+            indexes = @Index(name = "idx_recipe_category_category_id", columnList = "category_id, recipe_id"))
     private Set<Category> categories = new HashSet<>();
 
     public void setNotes(Note note) {
         this.note = note;
-        note.setRecipe(this);
+        if (note != null) {
+            note.setRecipe(this);
+        }
+    }
+
+    /**
+     * Marks the recipe as modified so its version is incremented on flush, also when only a note, an
+     * ingredient or the image changed. Ingredients are saved on their own and never dirty the recipe row.
+     */
+    public void touch() {
+        Instant now = Instant.now();
+        lastModified = lastModified != null && !now.isAfter(lastModified) ? lastModified.plusMillis(1) : now;
     }
 
     public Recipe addIngredient(Ingredient ingredient){
@@ -0,0 +1,10 @@
+package guru.springframework.domain;
+
+/**
+ * Projection of the few recipe columns the recipe list needs.
+ */
+public interface RecipeSummary {
+    Long getId();
+    String getDescription();
+    Long getImageId();
+}
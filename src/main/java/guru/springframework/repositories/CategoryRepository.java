@@ -1,11 +1,52 @@
 package guru.springframework.repositories;
 
+import guru.springframework.config.CachingConfig;
 import guru.springframework.domain.Category;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.Optional;
 
+/**
+ * Categories are reference data like units of measure, see {@link UnitOfMeasureRepository}.
+ */
+@CacheConfig(cacheNames = CachingConfig.CATEGORIES)
 public interface CategoryRepository extends CrudRepository<Category, Long> {
 
+    @Cacheable(key = "'description:' + #p0")
     Optional<Category> findByDescription(String description);
+
+    @Cacheable
+    @Override
+    Optional<Category> findById(Long id);
+
+    @Cacheable(key = "'all'")
+    @Override
+    Iterable<Category> findAll();
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Category> S save(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Category> Iterable<S> saveAll(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteById(Long id);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void delete(Category entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll(Iterable<? extends Category> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll();
 }
@@ -0,0 +1,7 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+}
@@ -1,7 +1,27 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.Ingredient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface IngredientRepository extends CrudRepository<Ingredient, Long> {
+
+    // single row lookup on the (recipe_id, id) index, the unit of measure is joined in the same select
+    @EntityGraph(attributePaths = "uom")
+    Optional<Ingredient> findByIdAndRecipeId(Long id, Long recipeId);
+
+    @EntityGraph(attributePaths = "uom")
+    Page<Ingredient> findByRecipeId(Long recipeId, Pageable pageable);
+
+    // one delete statement, the ingredient is never loaded
+    @Modifying
+    @Query("delete from Ingredient i where i.id = :id and i.recipe.id = :recipeId")
+    int deleteByIdAndRecipeId(@Param("id") Long id, @Param("recipeId") Long recipeId);
 }
@@ -1,7 +1,90 @@
 package guru.springframework.repositories;
 
+import guru.springframework.config.CachingConfig;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.domain.Recipe;
-import org.springframework.data.repository.CrudRepository;
+import guru.springframework.domain.RecipeSummary;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface RecipeRepository extends CrudRepository<Recipe, Long> {
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+public interface RecipeRepository extends PagingAndSortingRepository<Recipe, Long> {
+
+    /**
+     * Loads the recipe together with everything the show and edit pages walk (ingredients with their
+     * unit of measure, categories and note) in a single select, instead of one select per association.
+     */
+    @EntityGraph(attributePaths = {"ingredients", "ingredients.uom", "categories", "note"})
+    Optional<Recipe> findDetailedById(Long id);
+
+    // same graph for a whole page of recipes, the result is in no particular order
+    @EntityGraph(attributePaths = {"ingredients", "ingredients.uom", "categories", "note"})
+    List<Recipe> findDetailedByIdIn(Collection<Long> ids);
+
+    /**
+     * Every recipe with the same graph, read row by row from an open cursor. Has to be consumed (and closed)
+     * inside a transaction; the caller clears the persistence context as it goes so memory stays flat.
+     */
+    @EntityGraph(attributePaths = {"ingredients", "ingredients.uom", "categories", "note"})
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "500"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select r from Recipe r order by r.id")
+    Stream<Recipe> streamAllOrderById();
+
+    @Query("select r.version from Recipe r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select r.image from Recipe r where r.id = :recipeId")
+    Optional<ImageMetadata> findImageByRecipeId(@Param("recipeId") Long recipeId);
+
+    @Query(value = "select r.id as id, r.description as description, i.id as imageId from Recipe r left join r.image i",
+            countQuery = "select count(r) from Recipe r")
+    Page<RecipeSummary> findSummaries(Pageable pageable);
+
+    // keyset pagination, seeks on the primary key index instead of skipping rows
+    @Query("select r.id as id, r.description as description, i.id as imageId from Recipe r left join r.image i"
+            + " where r.id > :after order by r.id")
+    List<RecipeSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    // a page of the recipes in the category, without a count query, see countByCategoryId
+    @Query("select r.id as id, r.description as description, i.id as imageId from Recipe r join r.categories c"
+            + " left join r.image i where c.id = :categoryId")
+    List<RecipeSummary> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // reads the category_id index of recipe_category, evicted on every recipe write by CategoryServiceImpl
+    @Cacheable(cacheNames = CachingConfig.CATEGORY_RECIPE_COUNTS)
+    @Query("select count(r) from Recipe r join r.categories c where c.id = :categoryId")
+    long countByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select r.id as id, r.description as description, i.id as imageId from Recipe r left join r.image i"
+            + " where r.id in :ids order by r.id")
+    List<RecipeSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // the ids behind the facets of the recipe list, see RecipeFacetIndex
+    @Query("select r.id from Recipe r where r.difficulty = :difficulty")
+    List<Long> findIdsByDifficulty(@Param("difficulty") Difficulty difficulty);
+
+    // seeks on the category_id index of recipe_category
+    @Query("select r.id from Recipe r join r.categories c where c.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select r.id from Recipe r where r.prepTime >= :from and r.prepTime < :to")
+    List<Long> findIdsByPrepTimeRange(@Param("from") int from, @Param("to") int to);
+
+    @Query("select r.id from Recipe r where r.cookTime >= :from and r.cookTime < :to")
+    List<Long> findIdsByCookTimeRange(@Param("from") int from, @Param("to") int to);
 }
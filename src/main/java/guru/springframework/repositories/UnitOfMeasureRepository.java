@@ -1,11 +1,53 @@
 package guru.springframework.repositories;
 
+import guru.springframework.config.CachingConfig;
 import guru.springframework.domain.UnitOfMeasure;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.Optional;
 
+/**
+ * Units of measure are read on every ingredient form and save, lookups are served from the cache and any
+ * write clears it. Cached entities are shared between callers and must not be modified.
+ */
+@CacheConfig(cacheNames = CachingConfig.UNITS_OF_MEASURE)
 public interface UnitOfMeasureRepository extends CrudRepository<UnitOfMeasure, Long> {
 
+    @Cacheable(key = "'description:' + #p0")
     Optional<UnitOfMeasure> findByDescription(String description);
+
+    @Cacheable
+    @Override
+    Optional<UnitOfMeasure> findById(Long id);
+
+    @Cacheable(key = "'all'")
+    @Override
+    Iterable<UnitOfMeasure> findAll();
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends UnitOfMeasure> S save(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends UnitOfMeasure> Iterable<S> saveAll(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteById(Long id);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void delete(UnitOfMeasure entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll(Iterable<? extends UnitOfMeasure> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll();
 }
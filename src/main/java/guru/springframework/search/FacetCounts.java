@@ -0,0 +1,16 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Difficulty;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class FacetCounts {
+    private final List<FacetValue<Long>> categories;
+    private final List<FacetValue<Difficulty>> difficulties;
+    private final List<FacetValue<TimeRange>> prepTimes;
+    private final List<FacetValue<TimeRange>> cookTimes;
+}
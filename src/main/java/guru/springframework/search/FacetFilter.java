@@ -0,0 +1,26 @@
+package guru.springframework.search;
+
+import guru.springframework.domain.Difficulty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The facet values picked on the recipe list, bound from repeated request parameters such as
+ * {@code ?category=3&difficulty=EASY&difficulty=MODERATE&prep=UNDER_15}. Values of one facet are or-ed,
+ * the facets are and-ed.
+ */
+@Getter
+@Setter
+public class FacetFilter {
+    private Set<Long> category = new LinkedHashSet<>();
+    private Set<Difficulty> difficulty = new LinkedHashSet<>();
+    private Set<TimeRange> prep = new LinkedHashSet<>();
+    private Set<TimeRange> cook = new LinkedHashSet<>();
+
+    public boolean isEmpty() {
+        return category.isEmpty() && difficulty.isEmpty() && prep.isEmpty() && cook.isEmpty();
+    }
+}
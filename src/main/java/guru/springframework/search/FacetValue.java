@@ -0,0 +1,14 @@
+package guru.springframework.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class FacetValue<T> {
+    private final T value;
+    private final String label;
+    // recipes the value would match given the selections in the other facets
+    private final int count;
+    private final boolean selected;
+}
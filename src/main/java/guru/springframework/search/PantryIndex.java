@@ -0,0 +1,404 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.roaringbitmap.BitSetUtil;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index answering "what can I cook with these": every ingredient of every recipe gets an int
+ * slot, each normalised (lower cased, stemmed) ingredient token maps to a compressed bitmap of the slots whose
+ * description contains it.
+ *
+ * <p>A pantry item covers an ingredient when all of the item's tokens occur in the ingredient description, so
+ * {@code salt} covers "Kosher salt" while {@code lime juice} does not cover "orange juice". The covered slots are
+ * the union over the pantry items of the intersection over their tokens. The slots of a recipe are contiguous, so
+ * walking the covered slots in order yields each matching recipe's matched ingredients as one run. A selective
+ * pantry only looks at the recipes it covers, a stocked one that covers more slots than there are recipes gets a
+ * population count over a few bits of the covered bitmap per recipe instead.
+ */
+@Component
+public class PantryIndex {
+
+    // layout of the rank keys, see rankKey
+    private static final int MAX_COUNT = 0xFFFF;
+    private static final long ORDINAL_MASK = 0x7FFFFFFFL;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+
+    // slots are handed out at the end, the ranges of replaced recipes are reclaimed by compact
+    private int nextSlot;
+    private int liveSlots;
+    private int[] slotOwners = new int[1024];
+
+    // per recipe ordinal, kept flat as a stocked pantry looks at every recipe while ranking
+    private Entry[] recipes = new Entry[256];
+    private int[] slotStarts = new int[256];
+    private int[] ingredientCounts = new int[256];
+    private int nextRecipe;
+    private final RoaringBitmap freeRecipes = new RoaringBitmap();
+    private final Map<Long, Integer> recipeOrdinals = new HashMap<>();
+
+    /**
+     * Adds the recipe, or replaces the ingredients of a recipe with the same id. Ingredients without a
+     * description can't be matched and are left out.
+     */
+    public void index(RecipeCommand recipe) {
+        List<Set<String>> ingredients = new ArrayList<>();
+        for (IngredientCommand ingredient : recipe.getIngredients()) {
+            Set<String> tokens = tokenize(ingredient.getDescription());
+            if (!tokens.isEmpty()) {
+                ingredients.add(tokens);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(recipe.getId());
+            if (nextSlot - liveSlots > Math.max(liveSlots, 1024)) {
+                compact();
+            }
+
+            int ordinal = freeRecipes.isEmpty() ? nextRecipe++ : takeFirst(freeRecipes);
+            recipes = grow(recipes, ordinal);
+            slotStarts = grow(slotStarts, ordinal);
+            ingredientCounts = grow(ingredientCounts, ordinal);
+
+            int start = nextSlot;
+            slotOwners = grow(slotOwners, start + ingredients.size() - 1);
+            Arrays.fill(slotOwners, start, start + ingredients.size(), ordinal);
+            Set<Integer> recipeTokens = new LinkedHashSet<>();
+            for (int i = 0; i < ingredients.size(); i++) {
+                for (String token : ingredients.get(i)) {
+                    int tokenId = tokenIds.computeIfAbsent(token, t -> {
+                        postings.add(new RoaringBitmap());
+                        return postings.size() - 1;
+                    });
+                    postings.get(tokenId).add(start + i);
+                    recipeTokens.add(tokenId);
+                }
+            }
+            nextSlot += ingredients.size();
+            liveSlots += ingredients.size();
+
+            recipes[ordinal] = new Entry(recipe.getId(), recipe.getDescription(),
+                    recipeTokens.stream().mapToInt(Integer::intValue).toArray());
+            slotStarts[ordinal] = start;
+            ingredientCounts[ordinal] = ingredients.size();
+            recipeOrdinals.put(recipe.getId(), ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            remove(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            tokenIds.clear();
+            postings.clear();
+            nextSlot = 0;
+            liveSlots = 0;
+            Arrays.fill(recipes, null);
+            Arrays.fill(ingredientCounts, 0);
+            nextRecipe = 0;
+            freeRecipes.clear();
+            recipeOrdinals.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Matches the recipes against the pantry items, fewest missing ingredients first, then most matched
+     * ingredients. Sorting of the pageable is ignored.
+     */
+    public Page<PantryMatch> search(Collection<String> pantry, PantryMatchMode mode, Pageable pageable) {
+        List<Set<String>> items = new ArrayList<>();
+        for (String item : pantry) {
+            Set<String> tokens = tokenize(item);
+            if (!tokens.isEmpty()) {
+                items.add(tokens);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] itemSlots = new RoaringBitmap[items.size()];
+            for (int i = 0; i < itemSlots.length; i++) {
+                itemSlots[i] = slotsContainingAll(items.get(i));
+            }
+            // one pass over all item bitmaps instead of a union per item
+            RoaringBitmap covered = itemSlots.length == 0 ? new RoaringBitmap() : FastAggregation.or(itemSlots);
+
+            // the best offset + size candidates in a bounded max heap, only those get sorted
+            Ranking ranking = new Ranking(mode, (int) Math.min(pageable.getOffset() + pageable.getPageSize(),
+                    recipeOrdinals.size()));
+            if (covered.getLongCardinality() < recipeOrdinals.size()) {
+                // few covered slots: only the recipes they belong to are looked at
+                int current = -1;
+                int matched = 0;
+                IntIterator slots = covered.getIntIterator();
+                while (slots.hasNext()) {
+                    int owner = slotOwners[slots.next()];
+                    if (owner != current) {
+                        ranking.offer(current, matched);
+                        current = owner;
+                        matched = 0;
+                    }
+                    matched++;
+                }
+                ranking.offer(current, matched);
+            } else {
+                // more covered slots than recipes: one straight popcount per recipe is cheaper than finding the runs
+                long[] words = BitSetUtil.toLongArray(covered);
+                for (int ordinal = 0; ordinal < nextRecipe; ordinal++) {
+                    ranking.offer(ordinal, countBits(words, slotStarts[ordinal],
+                            slotStarts[ordinal] + ingredientCounts[ordinal]));
+                }
+            }
+            long[] best = ranking.sorted();
+
+            List<PantryMatch> content = new ArrayList<>();
+            for (long i = pageable.getOffset(); i < best.length; i++) {
+                int ordinal = (int) (best[(int) i] & ORDINAL_MASK);
+                int start = slotStarts[ordinal];
+                int count = ingredientCounts[ordinal];
+                Entry entry = recipes[ordinal];
+                content.add(new PantryMatch(entry.id, entry.description,
+                        (int) covered.rangeCardinality(start, (long) start + count), count));
+            }
+            long total = ranking.total;
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap slotsContainingAll(Set<String> tokens) {
+        RoaringBitmap slots = null;
+        for (String token : tokens) {
+            Integer tokenId = tokenIds.get(token);
+            if (tokenId == null) {
+                return new RoaringBitmap();
+            }
+            slots = slots == null ? postings.get(tokenId) : RoaringBitmap.and(slots, postings.get(tokenId));
+        }
+        return slots;
+    }
+
+    // missing ascending, matched descending, then the ordinal; counts past 0xFFFF tie at the cap
+    static long rankKey(int missing, int matched, int ordinal) {
+        return (long) Math.min(missing, MAX_COUNT) << 47 | (long) (MAX_COUNT - Math.min(matched, MAX_COUNT)) << 31
+                | ordinal;
+    }
+
+    // the heap keeps its largest key at the root, so the worst of the best is replaced first
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    /**
+     * Keeps the best keys seen in a bounded max heap and counts all matching recipes. Each recipe is offered
+     * once, the covered slots are walked in ascending order and the slots of a recipe are contiguous.
+     */
+    private class Ranking {
+        private final PantryMatchMode mode;
+        private final long[] best;
+        private int bestCount;
+        private long total;
+
+        private Ranking(PantryMatchMode mode, int size) {
+            this.mode = mode;
+            this.best = new long[size];
+        }
+
+        private void offer(int ordinal, int matched) {
+            if (ordinal < 0 || matched == 0) {
+                return;
+            }
+            int count = ingredientCounts[ordinal];
+            if (mode == PantryMatchMode.ALL && matched < count) {
+                return;
+            }
+            total++;
+            long key = rankKey(count - matched, matched, ordinal);
+            if (bestCount < best.length) {
+                best[bestCount] = key;
+                siftUp(best, bestCount++);
+            } else if (bestCount > 0 && key < best[0]) {
+                best[0] = key;
+                siftDown(best, bestCount);
+            }
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(best, bestCount);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private void remove(Long recipeId) {
+        Integer ordinal = recipeOrdinals.remove(recipeId);
+        if (ordinal == null) {
+            return;
+        }
+        int start = slotStarts[ordinal];
+        for (int tokenId : recipes[ordinal].tokens) {
+            postings.get(tokenId).remove(start, (long) start + ingredientCounts[ordinal]);
+        }
+        liveSlots -= ingredientCounts[ordinal];
+        recipes[ordinal] = null;
+        ingredientCounts[ordinal] = 0;
+        freeRecipes.add(ordinal);
+    }
+
+    // renumbers the slots of the live recipes from zero, dropping the ranges left behind by replaced recipes
+    private void compact() {
+        int[] newSlots = new int[nextSlot];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextRecipe; ordinal++) {
+            for (int i = 0; i < ingredientCounts[ordinal]; i++) {
+                newSlots[slotStarts[ordinal] + i] = next + i;
+            }
+            slotStarts[ordinal] = next;
+            Arrays.fill(slotOwners, next, next + ingredientCounts[ordinal], ordinal);
+            next += ingredientCounts[ordinal];
+        }
+        for (int i = 0; i < postings.size(); i++) {
+            int[] slots = postings.get(i).toArray();
+            for (int j = 0; j < slots.length; j++) {
+                slots[j] = newSlots[slots[j]];
+            }
+            Arrays.sort(slots);
+            postings.set(i, RoaringBitmap.bitmapOf(slots));
+        }
+        nextSlot = next;
+    }
+
+    private Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        try (TokenStream stream = analyzer.tokenStream("ingredient", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to tokenize: " + text, e);
+        }
+        return tokens;
+    }
+
+    // set bits in [from, to), an empty range has none
+    static int countBits(long[] words, int from, int to) {
+        int first = from >>> 6;
+        if (from >= to || first >= words.length) {
+            return 0;
+        }
+        int last = (to - 1) >>> 6;
+        if (first == last) {
+            return Long.bitCount(words[first] & (-1L << from) & (-1L >>> -to));
+        }
+        int count = Long.bitCount(words[first] & (-1L << from));
+        for (int i = first + 1; i < last && i < words.length; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        if (last < words.length) {
+            count += Long.bitCount(words[last] & (-1L >>> -to));
+        }
+        return count;
+    }
+
+    // freed ordinals are reused before new ones are handed out
+    private static int takeFirst(RoaringBitmap free) {
+        int ordinal = free.first();
+        free.remove(ordinal);
+        return ordinal;
+    }
+
+    private static int[] grow(int[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static Entry[] grow(Entry[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static class Entry {
+        private final long id;
+        private final String description;
+        private final int[] tokens;
+
+        private Entry(long id, String description, int[] tokens) {
+            this.id = id;
+            this.description = description;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package guru.springframework.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class PantryMatch {
+    private final Long id;
+    private final String description;
+    private final int matchedIngredients;
+    private final int ingredientCount;
+
+    public int getMissingIngredients() {
+        return ingredientCount - matchedIngredients;
+    }
+}
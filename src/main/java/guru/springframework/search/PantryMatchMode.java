@@ -0,0 +1,8 @@
+package guru.springframework.search;
+
+public enum PantryMatchMode {
+    // every ingredient of the recipe is in the pantry
+    ALL,
+    // at least one ingredient is in the pantry, fewest missing ingredients first
+    MOST
+}
@@ -0,0 +1,246 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.CategoryCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Facets of the recipe list: for every category, difficulty and preparation and cooking time range a compressed
+ * bitmap of the ids of the recipes having it. Filtering is an intersection of unions, the count next to a facet
+ * value the cardinality of its bitmap intersected with the selections in the other facets.
+ *
+ * <p>{@link #rebuild()} loads the bitmaps with one query per facet value, {@link RecipeSearchIndexer} then keeps
+ * them up to date recipe by recipe.
+ */
+@Component
+public class RecipeFacetIndex {
+
+    private enum Facet { CATEGORY, DIFFICULTY, PREP_TIME, COOK_TIME }
+
+    private final RecipeRepository recipeRepository;
+    private final CategoryRepository categoryRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, RoaringBitmap> categories = new HashMap<>();
+    private Map<Difficulty, RoaringBitmap> difficulties = new EnumMap<>(Difficulty.class);
+    private Map<TimeRange, RoaringBitmap> prepTimes = new EnumMap<>(TimeRange.class);
+    private Map<TimeRange, RoaringBitmap> cookTimes = new EnumMap<>(TimeRange.class);
+
+    public RecipeFacetIndex(RecipeRepository recipeRepository, CategoryRepository categoryRepository) {
+        this.recipeRepository = recipeRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Replaces all bitmaps with the ids read from the database.
+     */
+    public void rebuild() {
+        Map<Long, RoaringBitmap> newCategories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            newCategories.put(category.getId(), bitmapOf(recipeRepository.findIdsByCategoryId(category.getId())));
+        }
+        Map<Difficulty, RoaringBitmap> newDifficulties = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            newDifficulties.put(difficulty, bitmapOf(recipeRepository.findIdsByDifficulty(difficulty)));
+        }
+        Map<TimeRange, RoaringBitmap> newPrepTimes = new EnumMap<>(TimeRange.class);
+        Map<TimeRange, RoaringBitmap> newCookTimes = new EnumMap<>(TimeRange.class);
+        for (TimeRange range : TimeRange.values()) {
+            newPrepTimes.put(range, bitmapOf(recipeRepository.findIdsByPrepTimeRange(range.getFrom(), range.getTo())));
+            newCookTimes.put(range, bitmapOf(recipeRepository.findIdsByCookTimeRange(range.getFrom(), range.getTo())));
+        }
+
+        lock.writeLock().lock();
+        try {
+            categories = newCategories;
+            difficulties = newDifficulties;
+            prepTimes = newPrepTimes;
+            cookTimes = newCookTimes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the recipe, or moves a recipe with the same id to its current facet values.
+     */
+    public void index(RecipeCommand recipe) {
+        int id = bit(recipe.getId());
+        TimeRange prepTime = TimeRange.of(recipe.getPrepTime());
+        TimeRange cookTime = TimeRange.of(recipe.getCookTime());
+
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            for (CategoryCommand category : recipe.getCategories()) {
+                categories.computeIfAbsent(category.getId(), c -> new RoaringBitmap()).add(id);
+            }
+            if (recipe.getDifficulty() != null) {
+                difficulties.computeIfAbsent(recipe.getDifficulty(), d -> new RoaringBitmap()).add(id);
+            }
+            if (prepTime != null) {
+                prepTimes.computeIfAbsent(prepTime, r -> new RoaringBitmap()).add(id);
+            }
+            if (cookTime != null) {
+                cookTimes.computeIfAbsent(cookTime, r -> new RoaringBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            remove(bit(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The ids of the recipes matching the filter in ascending order. An empty filter matches nothing here, the
+     * unfiltered list is read from the database.
+     */
+    public Page<Long> search(FacetFilter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = matching(filter, null);
+            if (matches == null) {
+                return new PageImpl<>(new ArrayList<>(), pageable, 0);
+            }
+
+            List<Long> ids = new ArrayList<>();
+            long total = matches.getLongCardinality();
+            if (pageable.getOffset() < total) {
+                // select finds the first id of the page without walking the ones before it
+                PeekableIntIterator iterator = matches.getIntIterator();
+                iterator.advanceIfNeeded(matches.select((int) pageable.getOffset()));
+                while (iterator.hasNext() && ids.size() < pageable.getPageSize()) {
+                    ids.add((long) iterator.next());
+                }
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts per facet value, each as if that value were picked in addition to the selections in the other
+     * facets. Categories are listed by description.
+     */
+    public FacetCounts count(FacetFilter filter) {
+        List<Category> allCategories = StreamSupport.stream(categoryRepository.findAll().spliterator(), false)
+                .sorted(Comparator.comparing(Category::getDescription))
+                .collect(Collectors.toList());
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap others = matching(filter, Facet.CATEGORY);
+            List<FacetValue<Long>> categoryCounts = new ArrayList<>();
+            for (Category category : allCategories) {
+                categoryCounts.add(new FacetValue<>(category.getId(), category.getDescription(),
+                        count(categories.get(category.getId()), others), filter.getCategory().contains(category.getId())));
+            }
+
+            others = matching(filter, Facet.DIFFICULTY);
+            List<FacetValue<Difficulty>> difficultyCounts = new ArrayList<>();
+            for (Difficulty difficulty : Difficulty.values()) {
+                difficultyCounts.add(new FacetValue<>(difficulty, StringUtils.capitalize(difficulty.name().toLowerCase()),
+                        count(difficulties.get(difficulty), others), filter.getDifficulty().contains(difficulty)));
+            }
+
+            return new FacetCounts(categoryCounts, difficultyCounts,
+                    timeCounts(prepTimes, matching(filter, Facet.PREP_TIME), filter.getPrep()),
+                    timeCounts(cookTimes, matching(filter, Facet.COOK_TIME), filter.getCook()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // intersection of the selected facets but the skipped one, null when nothing is selected
+    private RoaringBitmap matching(FacetFilter filter, Facet skipped) {
+        RoaringBitmap matches = null;
+        if (skipped != Facet.CATEGORY) {
+            matches = intersect(matches, categories, filter.getCategory());
+        }
+        if (skipped != Facet.DIFFICULTY) {
+            matches = intersect(matches, difficulties, filter.getDifficulty());
+        }
+        if (skipped != Facet.PREP_TIME) {
+            matches = intersect(matches, prepTimes, filter.getPrep());
+        }
+        if (skipped != Facet.COOK_TIME) {
+            matches = intersect(matches, cookTimes, filter.getCook());
+        }
+        return matches;
+    }
+
+    private static <T> RoaringBitmap intersect(RoaringBitmap matches, Map<T, RoaringBitmap> facet, Collection<T> selected) {
+        if (selected.isEmpty()) {
+            return matches;
+        }
+        RoaringBitmap union = RoaringBitmap.or(selected.stream()
+                .map(value -> facet.getOrDefault(value, new RoaringBitmap()))
+                .iterator());
+        return matches == null ? union : RoaringBitmap.and(matches, union);
+    }
+
+    private static List<FacetValue<TimeRange>> timeCounts(Map<TimeRange, RoaringBitmap> facet, RoaringBitmap others,
+                                                          Collection<TimeRange> selected) {
+        List<FacetValue<TimeRange>> counts = new ArrayList<>();
+        for (TimeRange range : TimeRange.values()) {
+            counts.add(new FacetValue<>(range, range.getLabel(), count(facet.get(range), others),
+                    selected.contains(range)));
+        }
+        return counts;
+    }
+
+    private static int count(RoaringBitmap value, RoaringBitmap others) {
+        if (value == null) {
+            return 0;
+        }
+        return others == null ? value.getCardinality() : RoaringBitmap.andCardinality(value, others);
+    }
+
+    private void remove(int id) {
+        categories.values().forEach(bitmap -> bitmap.remove(id));
+        difficulties.values().forEach(bitmap -> bitmap.remove(id));
+        prepTimes.values().forEach(bitmap -> bitmap.remove(id));
+        cookTimes.values().forEach(bitmap -> bitmap.remove(id));
+    }
+
+    private static RoaringBitmap bitmapOf(List<Long> recipeIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        recipeIds.forEach(id -> bitmap.add(bit(id)));
+        return bitmap;
+    }
+
+    // recipe ids come from a sequence and stay far below 2^31
+    private static int bit(Long recipeId) {
+        return Math.toIntExact(recipeId);
+    }
+}
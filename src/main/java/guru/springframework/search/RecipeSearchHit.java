@@ -0,0 +1,12 @@
+package guru.springframework.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class RecipeSearchHit {
+    private final Long id;
+    private final String description;
+    private final float score;
+}
@@ -0,0 +1,179 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over the recipe description, directions, ingredient descriptions and notes. The index
+ * lives in memory and is derived from the database, {@link RecipeSearchIndexer} builds it on startup and keeps
+ * it up to date.
+ *
+ * <p>Writes become visible to searches on the next {@link #refresh()}.
+ */
+@Slf4j
+@Component
+public class RecipeSearchIndex {
+
+    static final String ID = "id";
+    static final String DESCRIPTION = "description";
+    static final String DIRECTIONS = "directions";
+    static final String INGREDIENTS = "ingredients";
+    static final String NOTES = "notes";
+
+    // a match in the description counts most, then the ingredients, then the free text
+    private static final Map<String, Float> FIELD_WEIGHTS = new HashMap<>();
+    static {
+        FIELD_WEIGHTS.put(DESCRIPTION, 4f);
+        FIELD_WEIGHTS.put(INGREDIENTS, 2f);
+        FIELD_WEIGHTS.put(DIRECTIONS, 1f);
+        FIELD_WEIGHTS.put(NOTES, 1f);
+    }
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public RecipeSearchIndex() throws IOException {
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Adds the recipe, or replaces the document of a recipe with the same id.
+     */
+    public void index(RecipeCommand recipe) {
+        try {
+            writer.updateDocument(idTerm(recipe.getId()), toDocument(recipe));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to index recipe id: " + recipe.getId(), e);
+        }
+    }
+
+    public void delete(Long recipeId) {
+        try {
+            writer.deleteDocuments(idTerm(recipeId));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to remove recipe id: " + recipeId + " from the index", e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to clear the search index", e);
+        }
+    }
+
+    // reopens the searcher on the pending writes, returns once they are searchable
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to refresh the search index", e);
+        }
+    }
+
+    /**
+     * Ranks the matching recipes by relevance, best first. Terms are stemmed and matched against all indexed
+     * fields, {@code "quoted phrases"}, {@code +required} and {@code -excluded} terms and {@code prefix*}
+     * are understood.
+     */
+    public Page<RecipeSearchHit> search(String text, Pageable pageable) {
+        if (!StringUtils.hasText(text)) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+
+        Query query = new SimpleQueryParser(analyzer, FIELD_WEIGHTS).parse(text);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // no page starts past the last document, which also keeps the offset within an int
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (pageable.getOffset() >= maxDoc) {
+                    return new PageImpl<>(Collections.emptyList(), pageable, searcher.count(query));
+                }
+                int offset = (int) pageable.getOffset();
+                TopDocs topDocs = searcher.search(query, (int) Math.min((long) offset + pageable.getPageSize(), maxDoc));
+
+                List<RecipeSearchHit> hits = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    Document document = searcher.doc(scoreDoc.doc);
+                    hits.add(new RecipeSearchHit(Long.valueOf(document.get(ID)), document.get(DESCRIPTION),
+                            scoreDoc.score));
+                }
+
+                // past a threshold only a lower bound is counted while collecting
+                long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value : searcher.count(query);
+                return new PageImpl<>(hits, pageable, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to search recipes for: " + text, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private static Document toDocument(RecipeCommand recipe) {
+        Document document = new Document();
+        document.add(new StringField(ID, recipe.getId().toString(), Field.Store.YES));
+        addText(document, DESCRIPTION, recipe.getDescription(), Field.Store.YES);
+        addText(document, DIRECTIONS, recipe.getDirections(), Field.Store.NO);
+        for (IngredientCommand ingredient : recipe.getIngredients()) {
+            addText(document, INGREDIENTS, ingredient.getDescription(), Field.Store.NO);
+        }
+        if (recipe.getNotes() != null) {
+            addText(document, NOTES, recipe.getNotes().getRecipeNotes(), Field.Store.NO);
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value, Field.Store store) {
+        if (value != null) {
+            document.add(new TextField(field, value, store));
+        }
+    }
+
+    private static Term idTerm(Long recipeId) {
+        return new Term(ID, recipeId.toString());
+    }
+}
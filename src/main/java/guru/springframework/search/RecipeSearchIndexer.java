@@ -0,0 +1,93 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.converters.RecipeToRecipeCommand;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.services.RecipeChangedEvent;
+import guru.springframework.services.RecipeExportService;
+import guru.springframework.services.RecipesImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Keeps the {@link RecipeSearchIndex}, the {@link PantryIndex} and the {@link RecipeFacetIndex} in line with the
+ * database: the whole catalogue is indexed once the application has started, after that only the recipes named by
+ * committed writes are re-read and reindexed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecipeSearchIndexer {
+
+    private final RecipeSearchIndex searchIndex;
+    private final PantryIndex pantryIndex;
+    private final RecipeFacetIndex facetIndex;
+    private final RecipeExportService recipeExportService;
+    private final RecipeRepository recipeRepository;
+    private final RecipeToRecipeCommand recipeToRecipeCommand;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        searchIndex.deleteAll();
+        pantryIndex.deleteAll();
+        recipeExportService.exportRecipes(this::index);
+        searchIndex.refresh();
+        facetIndex.rebuild();
+        log.info("Built recipe search indexes in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    // a failing reindex only leaves the search results stale, it must not fail the write that triggered it
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Long recipeId = event.getRecipeId();
+        try {
+            Optional<Recipe> recipe = recipeRepository.findDetailedById(recipeId);
+            if (recipe.isPresent()) {
+                RecipeCommand command = recipeToRecipeCommand.convert(recipe.get());
+                index(command);
+                facetIndex.index(command);
+            } else {
+                searchIndex.delete(recipeId);
+                pantryIndex.delete(recipeId);
+                facetIndex.delete(recipeId);
+            }
+            searchIndex.refresh();
+        } catch (RuntimeException e) {
+            log.error("Unable to reindex recipe id: " + recipeId, e);
+        }
+    }
+
+    // one select for the whole chunk
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        try {
+            recipeRepository.findDetailedByIdIn(event.getRecipeIds()).stream()
+                    .map(recipeToRecipeCommand::convert)
+                    .forEach(command -> {
+                        index(command);
+                        facetIndex.index(command);
+                    });
+            searchIndex.refresh();
+        } catch (RuntimeException e) {
+            log.error("Unable to index " + event.getRecipeIds().size() + " imported recipes", e);
+        }
+    }
+
+    // the facets are rebuilt from their own queries, see RecipeFacetIndex#rebuild
+    private void index(RecipeCommand recipe) {
+        searchIndex.index(recipe);
+        pantryIndex.index(recipe);
+    }
+}
@@ -0,0 +1,37 @@
+package guru.springframework.search;
+
+import lombok.Getter;
+
+/**
+ * Buckets of a preparation or cooking time in minutes, from inclusive to exclusive.
+ */
+@Getter
+public enum TimeRange {
+    UNDER_15("Under 15 min", 0, 15),
+    UNDER_30("15 to 30 min", 15, 30),
+    UNDER_60("30 to 60 min", 30, 60),
+    OVER_60("Over an hour", 60, Integer.MAX_VALUE);
+
+    private final String label;
+    private final int from;
+    private final int to;
+
+    TimeRange(String label, int from, int to) {
+        this.label = label;
+        this.from = from;
+        this.to = to;
+    }
+
+    // null for a recipe without the time
+    public static TimeRange of(Integer minutes) {
+        if (minutes == null) {
+            return null;
+        }
+        for (TimeRange range : values()) {
+            if (minutes >= range.from && minutes < range.to) {
+                return range;
+            }
+        }
+        return null;
+    }
+}
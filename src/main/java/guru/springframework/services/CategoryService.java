@@ -0,0 +1,11 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.RecipeSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface CategoryService {
+    Category findById(Long id);
+    Page<RecipeSummary> getRecipeSummaries(Long categoryId, Pageable pageable);
+}
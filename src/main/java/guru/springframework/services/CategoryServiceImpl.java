@@ -0,0 +1,53 @@
+package guru.springframework.services;
+
+import guru.springframework.config.CachingConfig;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Service
+public class CategoryServiceImpl implements CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final RecipeRepository recipeRepository;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, RecipeRepository recipeRepository) {
+        this.categoryRepository = categoryRepository;
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public Category findById(Long id) {
+        return categoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Category not found for id: " + id));
+    }
+
+    /**
+     * The page is read on its own, the total comes from the cached count and is only needed when the page is full
+     * or not the first one.
+     */
+    @Override
+    public Page<RecipeSummary> getRecipeSummaries(Long categoryId, Pageable pageable) {
+        List<RecipeSummary> summaries = recipeRepository.findSummariesByCategoryId(categoryId, pageable);
+        return PageableExecutionUtils.getPage(summaries, pageable, () -> recipeRepository.countByCategoryId(categoryId));
+    }
+
+    // a saved recipe may have left or joined any category, so all counts go
+    @CacheEvict(cacheNames = CachingConfig.CATEGORY_RECIPE_COUNTS, allEntries = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+    }
+
+    @CacheEvict(cacheNames = CachingConfig.CATEGORY_RECIPE_COUNTS, allEntries = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+    }
+}
@@ -1,7 +1,12 @@
 package guru.springframework.services;
 
+import guru.springframework.domain.ImageMetadata;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface ImageService {
     void saveImageFile(Long recipeId, MultipartFile file);
+    ImageMetadata findImageMetadata(Long recipeId);
+    Resource loadImage(ImageMetadata image);
+    Resource loadThumbnail(ImageMetadata image, int size);
 }
@@ -1,14 +1,25 @@
 package guru.springframework.services;
 
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.domain.Recipe;
 import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.storage.ImageStore;
+import guru.springframework.storage.ImageUploadedEvent;
+import guru.springframework.storage.ThumbnailGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -16,29 +27,120 @@ import java.io.IOException;
 public class ImageServiceImpl implements ImageService {
 
     private final RecipeRepository recipeRepository;
+    private final ImageStore imageStore;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public void saveImageFile(Long recipeId, MultipartFile file) {
-        try {
-            Recipe recipe = recipeRepository.findById(recipeId).get();
+        Recipe recipe = recipeRepository.findById(recipeId).orElseThrow(() -> new RuntimeException("Recipe not found"));
+
+        // every upload gets a fresh key, so the previous image stays readable until the recipe points elsewhere
+        String key = recipeId + "/" + UUID.randomUUID();
+
+        ImageMetadata previous = recipe.getImage();
+        String previousKey = previous != null ? previous.getStorageKey() : null;
+
+        ImageMetadata image = previous != null ? previous : new ImageMetadata();
+        image.setStorageKey(key);
+        image.setContentType(file.getContentType());
+        image.setLastModified(Instant.now());
+
+        try (InputStream content = file.getInputStream()) {
+            image.setContentLength(imageStore.store(key, content, file.getSize()));
+        } catch (IOException e) {
+            log.error("Error storing image for recipe id: " + recipeId, e);
+            throw new RuntimeException("Unable to store image", e);
+        }
+
+        // published as soon as the content is stored, so a failing save still cleans up behind itself;
+        // thumbnails are derived in the background once this transaction commits
+        eventPublisher.publishEvent(new ImageUploadedEvent(recipeId, key, previousKey));
+
+        recipe.setImage(image);
+        recipe.touch();
+        recipeRepository.save(recipe);
+
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipeId));
+    }
+
+    /**
+     * Drops the replaced image and its thumbnails once the recipe points at the new one.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onImageCommitted(ImageUploadedEvent event) {
+        if (event.getPreviousStorageKey() != null) {
+            delete(event.getPreviousStorageKey());
+        }
+    }
+
+    /**
+     * Drops the new image when the recipe was not updated, the previous one stays in place.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onImageRolledBack(ImageUploadedEvent event) {
+        delete(event.getStorageKey());
+    }
 
-            Byte[] byteObjects = new Byte[file.getBytes().length];
+    /**
+     * Drops the image and its thumbnails of a deleted recipe.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRecipeDeleted(RecipeDeletedEvent event) {
+        if (event.getImageStorageKey() != null) {
+            delete(event.getImageStorageKey());
+        }
+    }
 
-            int i = 0;
+    /**
+     * Reads the image reference without loading the recipe itself.
+     *
+     * @return the stored image reference, or {@code null} if there is no such recipe or it has no image
+     */
+    @Override
+    public ImageMetadata findImageMetadata(Long recipeId) {
+        return recipeRepository.findImageByRecipeId(recipeId).orElse(null);
+    }
 
-            for (byte b : file.getBytes()){
-                byteObjects[i++] = b;
-            }
+    /**
+     * @return the image content, or {@code null} if it is missing from the store
+     */
+    @Override
+    public Resource loadImage(ImageMetadata image) {
+        return load(image.getStorageKey());
+    }
 
-            recipe.setImage(byteObjects);
+    /**
+     * @return the thumbnail content, or {@code null} if the size is not generated or the thumbnail is not ready yet
+     */
+    @Override
+    public Resource loadThumbnail(ImageMetadata image, int size) {
+        if (!thumbnailGenerator.supportsSize(size)) {
+            return null;
+        }
+        return load(ThumbnailGenerator.thumbnailKey(image.getStorageKey(), size));
+    }
 
-            recipeRepository.save(recipe);
+    // the transaction of the upload is complete, a key left behind is only wasted space
+    private void delete(String key) {
+        try {
+            imageStore.delete(key);
+            thumbnailGenerator.deleteThumbnails(key);
         } catch (IOException e) {
-            //todo handle better
-            log.error("Error occurred", e);
+            log.warn("Unable to delete image " + key, e);
+        }
+    }
 
-            e.printStackTrace();
+    private Resource load(String key) {
+        try {
+            return imageStore.load(key);
+        } catch (IOException e) {
+            log.error("Error loading image " + key, e);
+            throw new RuntimeException("Unable to load image", e);
         }
     }
 }
@@ -1,9 +1,12 @@
 package guru.springframework.services;
 
 import guru.springframework.commands.IngredientCommand;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 public interface IngredientService {
     IngredientCommand findByRecipeIdAndIngredientId(Long recipeID, Long ingredientId);
+    Page<IngredientCommand> findByRecipeId(Long recipeId, Pageable pageable);
     IngredientCommand saveIngredientCommand(IngredientCommand command);
     void deleteById(Long recipeId ,Long ingredientId);
 }
@@ -1,136 +1,93 @@
 package guru.springframework.services;
 
 import guru.springframework.commands.IngredientCommand;
-import guru.springframework.converters.IngredientCommandToIngredient;
 import guru.springframework.converters.IngredientToIngredientCommand;
 import guru.springframework.domain.Ingredient;
 import guru.springframework.domain.Recipe;
+import guru.springframework.exceptions.NotFoundException;
 import guru.springframework.repositories.IngredientRepository;
 import guru.springframework.repositories.RecipeRepository;
 import guru.springframework.repositories.UnitOfMeasureRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class IngredientServiceImpl implements IngredientService {
 
     private final IngredientToIngredientCommand ingredientToIngredientCommand;
-    private final IngredientCommandToIngredient ingredientCommandToIngredient;
     private final RecipeRepository recipeRepository;
     private final UnitOfMeasureRepository unitOfMeasureRepository;
     private final IngredientRepository ingredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public IngredientCommand findByRecipeIdAndIngredientId(Long recipeID, Long ingredientId) {
+        return ingredientRepository.findByIdAndRecipeId(ingredientId, recipeID)
+                .map(ingredientToIngredientCommand::convert)
+                .orElseThrow(() -> new RuntimeException("Ingredient not found for id: " + ingredientId
+                        + " and recipe id: " + recipeID));
+    }
 
-        Optional<Recipe> recipeOptional = recipeRepository.findById(recipeID);
-
-        if(!recipeOptional.isPresent()){
-            //todo implement error handling
-            log.error("Recipe id not found:" + recipeID);
-        }
-
-        Recipe recipe = recipeOptional.get();
-
-        Optional<IngredientCommand> ingredientCommandOptional = recipe.getIngredients().stream()
-                .filter(ingredient -> ingredient.getId().equals(ingredientId))
-                .map(ingredient -> {
-                    System.out.println("1 " + ingredientToIngredientCommand);
-                    return ingredientToIngredientCommand.convert(ingredient);
-                        }).findFirst();
-
-
-
-        if(!ingredientCommandOptional.isPresent()){
-            //todo implement error handling
-            log.error("Ingredient id not found: " + recipeID);
+    @Override
+    public Page<IngredientCommand> findByRecipeId(Long recipeId, Pageable pageable) {
+        Page<Ingredient> ingredients = ingredientRepository.findByRecipeId(recipeId, pageable);
+        // an empty page is either a recipe without ingredients or no recipe at all
+        if (!ingredients.hasContent() && !recipeRepository.existsById(recipeId)) {
+            throw new NotFoundException("Recipe not found for id: " + recipeId);
         }
-        return ingredientCommandOptional.get();
+        return ingredients.map(ingredientToIngredientCommand::convert);
     }
 
     @Override
     @Transactional
     public IngredientCommand saveIngredientCommand(IngredientCommand command) {
-        Optional<Recipe> recipeOptional = recipeRepository.findById(command.getRecipeId());
+        Ingredient ingredient = command.getId() == null
+                ? newIngredient(command)
+                : ingredientRepository.findByIdAndRecipeId(command.getId(), command.getRecipeId())
+                        .orElseThrow(() -> new RuntimeException("Ingredient not found for id: " + command.getId()
+                                + " and recipe id: " + command.getRecipeId()));
+
+        ingredient.setDescription(command.getDescription());
+        ingredient.setAmount(command.getAmount());
+        ingredient.setUom(unitOfMeasureRepository
+                .findById(command.getUnitOfMeasure().getId())
+                .orElseThrow(() -> new RuntimeException("UOM NOT FOUND"))); //todo address this
+        ingredient.getRecipe().touch();
+
+        // only the ingredient row is written, the recipe's other ingredients are never loaded
+        Ingredient savedIngredient = ingredientRepository.save(ingredient);
+        log.debug("Saved ingredient id: " + savedIngredient.getId());
+        eventPublisher.publishEvent(new RecipeChangedEvent(command.getRecipeId()));
+
+        return ingredientToIngredientCommand.convert(savedIngredient);
+    }
 
-        if(!recipeOptional.isPresent()){
+    private Ingredient newIngredient(IngredientCommand command) {
+        Recipe recipe = recipeRepository.findById(command.getRecipeId())
+                .orElseThrow(() -> new RuntimeException("Recipe not found for id: " + command.getRecipeId()));
 
-            //todo toss error if not found!
-            log.error("Recipe not found for id: " + command.getRecipeId());
-            return new IngredientCommand();
-        } else {
-            Recipe recipe = recipeOptional.get();
-
-            Optional<Ingredient> ingredientOptional = recipe
-                    .getIngredients()
-                    .stream()
-                    .filter(ingredient -> ingredient.getId().equals(command.getId()))
-                    .findFirst();
-
-            if(ingredientOptional.isPresent()){
-                Ingredient ingredientFound = ingredientOptional.get();
-                ingredientFound.setDescription(command.getDescription());
-                ingredientFound.setAmount(command.getAmount());
-                ingredientFound.setUom(unitOfMeasureRepository
-                        .findById(command.getUnitOfMeasure().getId())
-                        .orElseThrow(() -> new RuntimeException("UOM NOT FOUND"))); //todo address this
-            } else {
-                //add new Ingredient
-                Ingredient ingredient = ingredientCommandToIngredient.convert(command);
-                ingredient.setRecipe(recipe);
-                recipe.addIngredient(ingredient);
-            }
-
-            Recipe savedRecipe = recipeRepository.save(recipe);
-
-            Optional<Ingredient> savedIngredientOptional = savedRecipe.getIngredients().stream()
-                    .filter(recipeIngredients -> recipeIngredients.getId().equals(command.getId()))
-                    .findFirst();
-
-            //check by description
-            if(!savedIngredientOptional.isPresent()){
-                //not totally safe... But best guess
-                savedIngredientOptional = savedRecipe.getIngredients().stream()
-                        .filter(recipeIngredients -> recipeIngredients.getDescription().equals(command.getDescription()))
-                        .filter(recipeIngredients -> recipeIngredients.getAmount().equals(command.getAmount()))
-                        .filter(recipeIngredients -> recipeIngredients.getUom().getId().equals(command.getUnitOfMeasure().getId()))
-                        .findFirst();
-            }
-
-            //to do check for fail
-            return ingredientToIngredientCommand.convert(savedIngredientOptional.get());
-        }
+        Ingredient ingredient = new Ingredient();
+        ingredient.setRecipe(recipe);
+        return ingredient;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long recipeId, Long ingredientId){
         log.debug("Deleting ingredient: " + recipeId + " " + ingredientId);
-        Optional<Recipe> recipeOptional = recipeRepository.findById(recipeId);
-
-        if(recipeOptional.isPresent()){
-            Recipe recipe = recipeOptional.get();
-            log.debug("Found recipe");
-            Optional<Ingredient> ingredientOptional = recipe
-                    .getIngredients()
-                    .stream()
-                    .filter(ingredient -> ingredient.getId() == ingredientId)
-                    .findFirst();
-
-            if(ingredientOptional.isPresent()){
-                log.debug("Found ingredient");
-                Ingredient ingredientToDelete = ingredientOptional.get();
-                ingredientToDelete.setRecipe(null);
-                recipeOptional.get().getIngredients().remove(ingredientToDelete);
-                recipeRepository.save(recipe);
-            }
+
+        if (ingredientRepository.deleteByIdAndRecipeId(ingredientId, recipeId) == 0) {
+            log.debug("Ingredient id not found: " + ingredientId + " for recipe id: " + recipeId);
         } else {
-            log.debug("Recipe Id not found: " + recipeId);
+            recipeRepository.findById(recipeId).ifPresent(Recipe::touch);
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipeId));
         }
     }
 }
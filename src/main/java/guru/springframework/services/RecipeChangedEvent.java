@@ -0,0 +1,13 @@
+package guru.springframework.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a recipe, one of its ingredients or its image is written.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipeChangedEvent {
+    private final Long recipeId;
+}
@@ -0,0 +1,17 @@
+package guru.springframework.services;
+
+import lombok.Getter;
+
+/**
+ * Published when a recipe is deleted, carries the key of its stored image so the content can be dropped once
+ * the delete has committed.
+ */
+@Getter
+public class RecipeDeletedEvent extends RecipeChangedEvent {
+    private final String imageStorageKey;
+
+    public RecipeDeletedEvent(Long recipeId, String imageStorageKey) {
+        super(recipeId);
+        this.imageStorageKey = imageStorageKey;
+    }
+}
@@ -0,0 +1,9 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+
+import java.util.function.Consumer;
+
+public interface RecipeExportService {
+    void exportRecipes(Consumer<RecipeCommand> consumer);
+}
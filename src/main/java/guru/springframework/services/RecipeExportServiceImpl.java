@@ -0,0 +1,61 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.converters.RecipeToRecipeCommand;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks the whole catalogue from a database cursor, in id order, handing out one recipe at a time. Only the
+ * last {@value #CLEAR_INTERVAL} recipes are ever held in the persistence context.
+ */
+@Slf4j
+@Service
+public class RecipeExportServiceImpl implements RecipeExportService {
+
+    static final int CLEAR_INTERVAL = 100;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeToRecipeCommand recipeToRecipeCommand;
+    private final EntityManager entityManager;
+
+    public RecipeExportServiceImpl(RecipeRepository recipeRepository, RecipeToRecipeCommand recipeToRecipeCommand,
+                                   EntityManager entityManager) {
+        this.recipeRepository = recipeRepository;
+        this.recipeToRecipeCommand = recipeToRecipeCommand;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRecipes(Consumer<RecipeCommand> consumer) {
+        // a full export would otherwise push the frequently read recipes out of the second level cache
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        long exported = 0;
+        try (Stream<Recipe> recipes = recipeRepository.streamAllOrderById()) {
+            Iterator<Recipe> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(recipeToRecipeCommand.convert(iterator.next()));
+                if (++exported % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        log.debug("Exported " + exported + " recipes");
+    }
+}
@@ -0,0 +1,10 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+
+import java.util.Iterator;
+
+public interface RecipeImportService {
+    RecipeImportReport importRecipes(Iterator<RecipeCommand> commands);
+}
@@ -0,0 +1,109 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+import guru.springframework.converters.RecipeCommandToRecipe;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Imports recipes in chunks of {@code recipe.import.chunk-size}, each chunk in its own transaction so a large
+ * import neither holds one long transaction nor keeps every recipe in the persistence context. The inserts of a
+ * chunk are sent in JDBC batches, see {@code hibernate.jdbc.batch_size}.
+ */
+@Slf4j
+@Service
+public class RecipeImportServiceImpl implements RecipeImportService {
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeCommandToRecipe recipeCommandToRecipe;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public RecipeImportServiceImpl(RecipeRepository recipeRepository, RecipeCommandToRecipe recipeCommandToRecipe,
+                                   EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher, @Value("${recipe.import.chunk-size}") int chunkSize) {
+        this.recipeRepository = recipeRepository;
+        this.recipeCommandToRecipe = recipeCommandToRecipe;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every recipe as a new one, ids and versions in the input are ignored. Chunks that were already
+     * committed stay imported when a later one fails.
+     */
+    @Override
+    public RecipeImportReport importRecipes(Iterator<RecipeCommand> commands) {
+        long start = System.nanoTime();
+        long imported = 0;
+        int chunks = 0;
+
+        List<Recipe> chunk = new ArrayList<>(chunkSize);
+        while (commands.hasNext()) {
+            chunk.add(toNewRecipe(commands.next()));
+            if (chunk.size() == chunkSize || !commands.hasNext()) {
+                saveChunk(chunk);
+                imported += chunk.size();
+                chunks++;
+                chunk.clear();
+            }
+        }
+
+        RecipeImportReport report = new RecipeImportReport(imported, chunks, (System.nanoTime() - start) / 1_000_000);
+        log.info("Imported " + report.getImported() + " recipes in " + report.getChunks() + " chunks, "
+                + report.getElapsedMillis() + " ms (" + Math.round(report.getRecipesPerSecond()) + " recipes/s)");
+        return report;
+    }
+
+    private Recipe toNewRecipe(RecipeCommand command) {
+        Recipe recipe = recipeCommandToRecipe.convert(command);
+        recipe.setId(null);
+        recipe.setVersion(null);
+        recipe.getIngredients().forEach(ingredient -> ingredient.setId(null));
+        if (recipe.getNote() != null) {
+            recipe.getNote().setId(null);
+        }
+        recipe.touch();
+        return recipe;
+    }
+
+    private void saveChunk(List<Recipe> chunk) {
+        transactionTemplate.execute(status -> {
+            // nobody is reading the new recipes yet, don't fill the second level cache with them
+            Session session = entityManager.unwrap(Session.class);
+            CacheMode cacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.IGNORE);
+            try {
+                recipeRepository.saveAll(chunk);
+                // delivered once the chunk has committed, a single event so listeners can read the chunk in one go
+                eventPublisher.publishEvent(new RecipesImportedEvent(
+                        chunk.stream().map(Recipe::getId).collect(Collectors.toList())));
+                // the request may hold an open entity manager (open in view), keep it from growing with every chunk
+                entityManager.flush();
+                entityManager.clear();
+            } finally {
+                session.setCacheMode(cacheMode);
+            }
+            return null;
+        });
+    }
+}
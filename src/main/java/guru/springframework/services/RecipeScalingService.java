@@ -0,0 +1,7 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.ScaledRecipe;
+
+public interface RecipeScalingService {
+    ScaledRecipe scale(Long recipeId, int servings);
+}
@@ -0,0 +1,38 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.ScaledRecipe;
+import guru.springframework.config.CachingConfig;
+import guru.springframework.exceptions.NotFoundException;
+import guru.springframework.repositories.RecipeRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RecipeScalingServiceImpl implements RecipeScalingService {
+
+    static final int MAX_SERVINGS = 1000;
+
+    private final RecipeRepository recipeRepository;
+    private final Cache plans;
+
+    public RecipeScalingServiceImpl(RecipeRepository recipeRepository, CacheManager cacheManager) {
+        this.recipeRepository = recipeRepository;
+        this.plans = cacheManager.getCache(CachingConfig.SCALING_PLANS);
+    }
+
+    /**
+     * Scales the ingredient amounts to {@code servings}, between 1 and {@value #MAX_SERVINGS}. The plan is
+     * cached under the recipe version, so a request reads only the version, and plans of older versions age
+     * out of the cache.
+     */
+    @Override
+    public ScaledRecipe scale(Long recipeId, int servings) {
+        Long version = recipeRepository.findVersionById(recipeId)
+                .orElseThrow(() -> new NotFoundException("Recipe not found for id: " + recipeId));
+        ScalingPlan plan = plans.get(recipeId + ":" + version, () -> ScalingPlan.of(recipeRepository
+                .findDetailedById(recipeId)
+                .orElseThrow(() -> new NotFoundException("Recipe not found for id: " + recipeId))));
+        return plan.scale(Math.max(1, Math.min(servings, MAX_SERVINGS)));
+    }
+}
@@ -1,14 +1,24 @@
 package guru.springframework.services;
 
+import guru.springframework.commands.KeysetPage;
 import guru.springframework.commands.RecipeCommand;
 import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Set;
 
 public interface RecipeService {
     Set<Recipe> getRecipes();
+    Page<RecipeSummary> getRecipeSummaries(Pageable pageable);
+    Page<RecipeSummary> getRecipeSummariesIn(Page<Long> recipeIds);
+    KeysetPage<RecipeSummary> getRecipeSummariesAfter(Long after, int limit);
+    Long findVersionById(Long id);
     Recipe findById(Long id);
+    Recipe findWithoutIngredientsById(Long id);
     RecipeCommand findCommandById(Long id);
+    Page<RecipeCommand> findCommands(Pageable pageable);
     RecipeCommand saveRecipeCommand(RecipeCommand command);
     void deleteById(Long id);
 }
@@ -1,29 +1,49 @@
 package guru.springframework.services;
 
+import guru.springframework.commands.KeysetPage;
 import guru.springframework.commands.RecipeCommand;
 import guru.springframework.converters.RecipeCommandToRecipe;
 import guru.springframework.converters.RecipeToRecipeCommand;
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.exceptions.NotFoundException;
 import guru.springframework.repositories.RecipeRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class RecipeServiceImpl implements RecipeService {
 
+    static final int MAX_KEYSET_LIMIT = 100;
+
     private final RecipeRepository recipeRepository;
     private final RecipeCommandToRecipe recipeCommandToRecipe;
     private final RecipeToRecipeCommand recipeToRecipeCommand;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RecipeServiceImpl(RecipeRepository recipeRepository, RecipeCommandToRecipe recipeCommandToRecipe, RecipeToRecipeCommand recipeToRecipeCommand) {
+    public RecipeServiceImpl(RecipeRepository recipeRepository, RecipeCommandToRecipe recipeCommandToRecipe,
+                             RecipeToRecipeCommand recipeToRecipeCommand, ApplicationEventPublisher eventPublisher) {
         this.recipeRepository = recipeRepository;
         this.recipeCommandToRecipe = recipeCommandToRecipe;
         this.recipeToRecipeCommand = recipeToRecipeCommand;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -35,9 +55,53 @@ public class RecipeServiceImpl implements RecipeService {
         return recipeSet;
     }
 
+    @Override
+    public Page<RecipeSummary> getRecipeSummaries(Pageable pageable) {
+        return recipeRepository.findSummaries(pageable);
+    }
+
+    // the summaries of a page of ids picked elsewhere, in id order
+    @Override
+    public Page<RecipeSummary> getRecipeSummariesIn(Page<Long> recipeIds) {
+        List<RecipeSummary> summaries = recipeIds.hasContent()
+                ? recipeRepository.findSummariesByIdIn(recipeIds.getContent()) : Collections.emptyList();
+        return new PageImpl<>(summaries, recipeIds.getPageable(), recipeIds.getTotalElements());
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@value #MAX_KEYSET_LIMIT}) recipes with an id greater than
+     * {@code after}, ordered by id.
+     */
+    @Override
+    public KeysetPage<RecipeSummary> getRecipeSummariesAfter(Long after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_KEYSET_LIMIT));
+        List<RecipeSummary> summaries = recipeRepository.findSummariesAfter(after != null ? after : 0L,
+                PageRequest.of(0, size));
+
+        Long nextAfter = summaries.size() == size ? summaries.get(size - 1).getId() : null;
+        return new KeysetPage<>(summaries, nextAfter);
+    }
+
+    @Override
+    public Long findVersionById(Long id) {
+        return recipeRepository.findVersionById(id).orElse(null);
+    }
+
     @Override
     public Recipe findById(Long id) {
-        return recipeRepository.findById(id).orElseThrow(() -> new RuntimeException("Recipe not found"));
+        return recipeRepository.findDetailedById(id)
+                .orElseThrow(() -> new NotFoundException("Recipe not found for id: " + id));
+    }
+
+
+    /**
+     * The recipe with its ingredients left unloaded, for pages that show them from elsewhere. A plain lookup
+     * by id, so it is answered from the second level cache once the recipe is there.
+     */
+    @Override
+    public Recipe findWithoutIngredientsById(Long id) {
+        return recipeRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Recipe not found for id: " + id));
     }
 
 
@@ -49,19 +113,89 @@ public class RecipeServiceImpl implements RecipeService {
     public RecipeCommand saveRecipeCommand(RecipeCommand command) {
         Recipe detachedRecipe = recipeCommandToRecipe.convert(command);
 
-        Recipe savedRecipe = recipeRepository.save(detachedRecipe);
+        Recipe savedRecipe;
+        if (detachedRecipe.getId() == null) {
+            // stamped before the insert, touching the persisted recipe would cost an extra update
+            detachedRecipe.touch();
+            savedRecipe = recipeRepository.save(detachedRecipe);
+        } else {
+            savedRecipe = editRecipe(detachedRecipe);
+        }
         log.debug("Saved RecipeId:" + savedRecipe.getId());
+        eventPublisher.publishEvent(new RecipeChangedEvent(savedRecipe.getId()));
         return recipeToRecipeCommand.convert(savedRecipe);
     }
 
+    /**
+     * Copies the edited fields onto the managed recipe instead of merging the detached one. The recipe form
+     * carries neither ingredients (edited through IngredientService, and removed as orphans when they leave
+     * the collection), categories nor the image, so merging would wipe them.
+     *
+     * @throws ObjectOptimisticLockingFailureException if the form was rendered from an older version
+     */
+    private Recipe editRecipe(Recipe detachedRecipe) {
+        Recipe recipe = findById(detachedRecipe.getId());
+
+        if (detachedRecipe.getVersion() != null && !detachedRecipe.getVersion().equals(recipe.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Recipe.class, recipe.getId());
+        }
+
+        recipe.setDescription(detachedRecipe.getDescription());
+        recipe.setPrepTime(detachedRecipe.getPrepTime());
+        recipe.setCookTime(detachedRecipe.getCookTime());
+        recipe.setServings(detachedRecipe.getServings());
+        recipe.setSource(detachedRecipe.getSource());
+        recipe.setUrl(detachedRecipe.getUrl());
+        recipe.setDirections(detachedRecipe.getDirections());
+        recipe.setDifficulty(detachedRecipe.getDifficulty());
+
+        if (detachedRecipe.getNote() != null) {
+            if (recipe.getNote() != null) {
+                recipe.getNote().setRecipeNotes(detachedRecipe.getNote().getRecipeNotes());
+            } else {
+                recipe.setNotes(detachedRecipe.getNote());
+            }
+        }
+
+        if (!detachedRecipe.getCategories().isEmpty()) {
+            recipe.getCategories().clear();
+            recipe.getCategories().addAll(detachedRecipe.getCategories());
+        }
+        recipe.touch();
+
+        return recipe;
+    }
+
     @Override
     @Transactional
     public RecipeCommand findCommandById(Long l) {
         return recipeToRecipeCommand.convert(findById(l));
     }
 
+    /**
+     * The page of ids comes from the summary query, the recipes on it are then loaded with a single entity
+     * graph select instead of one select per recipe and association.
+     */
+    @Override
+    @Transactional
+    public Page<RecipeCommand> findCommands(Pageable pageable) {
+        Page<RecipeSummary> summaries = recipeRepository.findSummaries(pageable);
+        List<Long> ids = summaries.map(RecipeSummary::getId).getContent();
+
+        Map<Long, Recipe> recipes = ids.isEmpty() ? Collections.emptyMap() : recipeRepository
+                .findDetailedByIdIn(ids).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity(), (recipe, duplicate) -> recipe));
+
+        return summaries.map(summary -> recipeToRecipeCommand.convert(recipes.get(summary.getId())));
+    }
+
+    // the image row goes with the recipe, its stored content is dropped once the delete has committed
+    @Override
+    @Transactional
     public void deleteById(Long id){
+        String imageStorageKey = recipeRepository.findImageByRecipeId(id).map(ImageMetadata::getStorageKey).orElse(null);
         recipeRepository.deleteById(id);
+        eventPublisher.publishEvent(new RecipeDeletedEvent(id, imageStorageKey));
     }
 
 
@@ -0,0 +1,15 @@
+package guru.springframework.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published for every committed chunk of a bulk import, with the ids of the new recipes.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipesImportedEvent {
+    private final List<Long> recipeIds;
+}
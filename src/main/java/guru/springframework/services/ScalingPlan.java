@@ -0,0 +1,99 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.ScaledIngredient;
+import guru.springframework.commands.ScaledRecipe;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Everything scaling a recipe needs, taken from the recipe once per version. The amounts are kept as unscaled
+ * value and scale, so a scaled amount is a multiplication and a division on longs.
+ */
+class ScalingPlan {
+
+    // decimals of an amount that does not divide evenly
+    private static final int MIN_SCALE = 2;
+
+    // unscaled values up to 52 bits times RecipeScalingServiceImpl.MAX_SERVINGS still fit a long
+    private static final int LONG_BITS = 52;
+
+    private final Long recipeId;
+    private final String description;
+    private final Integer servings;
+    private final List<Line> lines;
+
+    private ScalingPlan(Long recipeId, String description, Integer servings, List<Line> lines) {
+        this.recipeId = recipeId;
+        this.description = description;
+        this.servings = servings;
+        this.lines = lines;
+    }
+
+    static ScalingPlan of(Recipe recipe) {
+        List<Line> lines = new ArrayList<>();
+        recipe.getIngredients().stream()
+                .sorted(Comparator.comparing(Ingredient::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(ingredient -> lines.add(new Line(ingredient)));
+        Integer servings = recipe.getServings() != null && recipe.getServings() > 0 ? recipe.getServings() : null;
+        return new ScalingPlan(recipe.getId(), recipe.getDescription(), servings, lines);
+    }
+
+    ScaledRecipe scale(int targetServings) {
+        List<ScaledIngredient> ingredients = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            BigDecimal amount = servings == null ? line.amount : line.scale(targetServings, servings);
+            ingredients.add(new ScaledIngredient(line.id, line.description, amount, line.unitOfMeasure));
+        }
+        return new ScaledRecipe(recipeId, description, servings, servings == null ? null : targetServings,
+                ingredients);
+    }
+
+    private static class Line {
+        private final Long id;
+        private final String description;
+        private final String unitOfMeasure;
+        private final BigDecimal amount;
+        private final boolean fitsLong;
+        private final long unscaled;
+        private final int scale;
+
+        private Line(Ingredient ingredient) {
+            id = ingredient.getId();
+            description = ingredient.getDescription();
+            unitOfMeasure = ingredient.getUom() != null ? ingredient.getUom().getDescription() : null;
+            amount = ingredient.getAmount();
+            fitsLong = amount != null && amount.unscaledValue().bitLength() <= LONG_BITS;
+            unscaled = fitsLong ? amount.unscaledValue().longValue() : 0;
+            scale = amount != null ? amount.scale() : 0;
+        }
+
+        // amount * target / original, exact when it divides evenly, else rounded half up
+        private BigDecimal scale(int target, int original) {
+            if (amount == null || target == original) {
+                return amount;
+            }
+            if (fitsLong) {
+                long product = unscaled * target;
+                if (product % original == 0) {
+                    return BigDecimal.valueOf(product / original, scale);
+                }
+                return BigDecimal.valueOf(product, scale).divide(BigDecimal.valueOf(original),
+                        Math.max(scale, MIN_SCALE), RoundingMode.HALF_UP);
+            }
+            BigInteger product = amount.unscaledValue().multiply(BigInteger.valueOf(target));
+            BigInteger[] quotientAndRemainder = product.divideAndRemainder(BigInteger.valueOf(original));
+            if (quotientAndRemainder[1].signum() == 0) {
+                return new BigDecimal(quotientAndRemainder[0], scale);
+            }
+            return new BigDecimal(product, scale).divide(BigDecimal.valueOf(original),
+                    Math.max(scale, MIN_SCALE), RoundingMode.HALF_UP);
+        }
+    }
+}
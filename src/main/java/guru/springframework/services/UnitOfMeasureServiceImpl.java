@@ -1,8 +1,10 @@
 package guru.springframework.services;
 
 import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.config.CachingConfig;
 import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommand;
 import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
@@ -19,7 +21,9 @@ public class UnitOfMeasureServiceImpl implements UnitOfMeasureService {
             this.unitOfMeasureToUnitOfMeasureCommand = unitOfMeasureToUnitOfMeasureCommand;
         }
 
+        // converted once and kept next to the entities, repository writes clear both
         @Override
+        @Cacheable(cacheNames = CachingConfig.UNITS_OF_MEASURE, key = "'commands'")
         public Set<UnitOfMeasureCommand> listAllUoms() {
 
             return StreamSupport.stream(unitOfMeasureRepository.findAll()
@@ -0,0 +1,93 @@
+package guru.springframework.storage;
+
+import guru.springframework.domain.ImageBlob;
+import guru.springframework.repositories.ImageBlobRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+
+/**
+ * {@link ImageStore} keeping images as BLOBs in the {@code image_blob} table. Enabled with
+ * {@code recipe.images.store=database}.
+ *
+ * The upload stream is handed to the JDBC driver as is, and reads hand out the LOB stream, so the
+ * content is never copied onto the heap. Reading relies on the request scoped session
+ * (open-in-view) to keep the LOB locator valid while the response is written.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recipe.images.store", havingValue = "database")
+public class DatabaseImageStore implements ImageStore {
+
+    private final ImageBlobRepository imageBlobRepository;
+
+    @Override
+    @Transactional
+    public long store(String key, InputStream content, long contentLength) {
+        ImageBlob imageBlob = new ImageBlob();
+        imageBlob.setStorageKey(key);
+        imageBlob.setContentLength(contentLength);
+        imageBlob.setContent(BlobProxy.generateProxy(content, contentLength));
+
+        // flush right away, the content stream is only open while the caller is in here
+        imageBlobRepository.saveAndFlush(imageBlob);
+        return contentLength;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Resource load(String key) {
+        return imageBlobRepository.findById(key)
+                .map(BlobResource::new)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void delete(String key) {
+        if (imageBlobRepository.existsById(key)) {
+            imageBlobRepository.deleteById(key);
+        }
+    }
+
+    private static class BlobResource extends AbstractResource {
+
+        private final ImageBlob imageBlob;
+
+        BlobResource(ImageBlob imageBlob) {
+            this.imageBlob = imageBlob;
+        }
+
+        @Override
+        public String getDescription() {
+            return "image blob [" + imageBlob.getStorageKey() + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            return imageBlob.getStorageKey();
+        }
+
+        @Override
+        public long contentLength() {
+            return imageBlob.getContentLength();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                return imageBlob.getContent().getBinaryStream();
+            } catch (SQLException e) {
+                throw new IOException("Unable to read image blob " + imageBlob.getStorageKey(), e);
+            }
+        }
+    }
+}
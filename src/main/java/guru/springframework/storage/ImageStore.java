@@ -0,0 +1,27 @@
+package guru.springframework.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Storage for uploaded image content. Content is streamed in and out, implementations must never
+ * hold a whole image in memory.
+ */
+public interface ImageStore {
+
+    /**
+     * Streams the content into the store under the given key, replacing anything already stored there.
+     *
+     * @return the number of bytes written
+     */
+    long store(String key, InputStream content, long contentLength) throws IOException;
+
+    /**
+     * @return the stored content, or {@code null} if nothing is stored under the key
+     */
+    Resource load(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,16 @@
+package guru.springframework.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published once a new image has been stored for a recipe. The previous image, if any, is only dropped once the
+ * recipe points at the new one.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ImageUploadedEvent {
+    private final Long recipeId;
+    private final String storageKey;
+    private final String previousStorageKey;
+}
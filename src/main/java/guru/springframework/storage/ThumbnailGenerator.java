@@ -0,0 +1,120 @@
+package guru.springframework.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Derives fixed size JPEG thumbnails from uploaded images and keeps them in the {@link ImageStore}
+ * next to the original. Generation runs on the bounded thumbnail executor once the upload is committed.
+ */
+@Slf4j
+@Component
+public class ThumbnailGenerator {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    private final ImageStore imageStore;
+    private final int[] sizes;
+
+    public ThumbnailGenerator(ImageStore imageStore, @Value("${recipe.images.thumbnail-sizes}") int[] sizes) {
+        this.imageStore = imageStore;
+        this.sizes = sizes.clone();
+    }
+
+    public static String thumbnailKey(String storageKey, int size) {
+        return storageKey + "-" + size;
+    }
+
+    public boolean supportsSize(int size) {
+        return Arrays.stream(sizes).anyMatch(s -> s == size);
+    }
+
+    // runs in its own transaction so LOB streams of the database store stay readable
+    @Async("thumbnailExecutor")
+    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploaded(ImageUploadedEvent event) {
+        createThumbnails(event.getStorageKey());
+    }
+
+    public void createThumbnails(String storageKey) {
+        try {
+            Resource original = imageStore.load(storageKey);
+            if (original == null) {
+                log.debug("Image " + storageKey + " is gone, no thumbnails created");
+                return;
+            }
+
+            BufferedImage image;
+            try (InputStream in = original.getInputStream()) {
+                image = ImageIO.read(in);
+            }
+            if (image == null) {
+                log.debug("Image " + storageKey + " is not in a readable format, no thumbnails created");
+                return;
+            }
+
+            for (int size : sizes) {
+                byte[] thumbnail = toJpeg(scale(image, size));
+                imageStore.store(thumbnailKey(storageKey, size), new ByteArrayInputStream(thumbnail), thumbnail.length);
+            }
+            // the image may have been replaced or its recipe deleted meanwhile, don't leave thumbnails behind
+            if (imageStore.load(storageKey) == null) {
+                deleteThumbnails(storageKey);
+                log.debug("Image " + storageKey + " was deleted while creating its thumbnails");
+                return;
+            }
+            log.debug("Created thumbnails for image " + storageKey);
+        } catch (IOException e) {
+            log.error("Error creating thumbnails for image " + storageKey, e);
+        }
+    }
+
+    public void deleteThumbnails(String storageKey) throws IOException {
+        for (int size : sizes) {
+            imageStore.delete(thumbnailKey(storageKey, size));
+        }
+    }
+
+    /**
+     * Fits the image into a size x size box keeping its aspect ratio, never scales up.
+     */
+    private static BufferedImage scale(BufferedImage image, int size) {
+        double factor = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        // JPEG has no alpha channel, so always draw onto an RGB canvas
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package guru.springframework.web;
+
+import guru.springframework.config.CachingConfig;
+import guru.springframework.services.RecipeService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the rendered HTML of the recipe show and ingredient list pages from a cache. Entries are keyed by the
+ * recipe id and its persisted version, the one the ETag is made of, so a change to the recipe makes the next
+ * request render the page again and older entries simply age out of the cache.
+ * <p>
+ * Even a hit costs the one version query, a cached page cannot tell whether the recipe changed meanwhile. The
+ * version read is exposed as {@link #RECIPE_VERSION_ATTRIBUTE}, so on a miss the controller builds its ETag from
+ * it instead of querying again.
+ */
+@Slf4j
+@Component
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the recipe version the page is cached under, absent for unknown recipes.
+     */
+    public static final String RECIPE_VERSION_ATTRIBUTE = RenderedPageCacheFilter.class.getName() + ".recipeVersion";
+
+    private static final Pattern CACHED_PAGE = Pattern.compile("^/recipe/(\\d+)/(show|ingredients)$");
+
+    private final Cache cache;
+    private final RecipeService recipeService;
+
+    public RenderedPageCacheFilter(CacheManager cacheManager, RecipeService recipeService) {
+        this.cache = cacheManager.getCache(CachingConfig.RENDERED_PAGES);
+        this.recipeService = recipeService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHED_PAGE.matcher(pagePath(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = pagePath(request);
+        Matcher matcher = CACHED_PAGE.matcher(path);
+        matcher.matches();
+        Long recipeId = Long.valueOf(matcher.group(1));
+
+        // read before rendering, a page rendered from a newer state is at worst stored under the older version
+        Long version = recipeService.findVersionById(recipeId);
+        if (version == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(RECIPE_VERSION_ATTRIBUTE, version);
+
+        String query = request.getQueryString();
+        String key = recipeId + ":" + version + ":" + path + (query != null ? "?" + query : "");
+
+        CachedPage page = cache.get(key, CachedPage.class);
+        if (page != null) {
+            // the page was rendered with the recipe version as ETag, conditional requests still get their 304
+            if (page.getETag() != null && new ServletWebRequest(request, response).checkNotModified(page.getETag())) {
+                return;
+            }
+            response.setContentType(page.getContentType());
+            response.setContentLength(page.getBody().length);
+            response.getOutputStream().write(page.getBody());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            log.debug("Caching rendered page " + key);
+            cache.put(key, new CachedPage(wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG),
+                    wrapper.getContentAsByteArray()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static String pagePath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class CachedPage {
+        private final String contentType;
+        private final String eTag;
+        private final byte[] body;
+    }
+}
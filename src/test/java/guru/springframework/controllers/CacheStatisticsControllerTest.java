@@ -0,0 +1,60 @@
+package guru.springframework.controllers;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CacheStatisticsControllerTest {
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Statistics statistics;
+
+    @Mock
+    CacheRegionStatistics regionStatistics;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new CacheStatisticsController(entityManagerFactory)).build();
+    }
+
+    @Test
+    public void getCacheStatistics() throws Exception {
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(5L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(2L);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"recipe"});
+        when(statistics.getCacheRegionStatistics("recipe")).thenReturn(regionStatistics);
+        when(regionStatistics.getHitCount()).thenReturn(3L);
+
+        mockMvc.perform(get("/api/v1/cache/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secondLevelCache.hits").value(5))
+                .andExpect(jsonPath("$.secondLevelCache.misses").value(2))
+                .andExpect(jsonPath("$.queryCache").doesNotExist())
+                .andExpect(jsonPath("$.regions.recipe.hits").value(3));
+    }
+}
@@ -0,0 +1,60 @@
+package guru.springframework.controllers;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.services.CategoryService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class CategoryControllerTest {
+
+    @Mock
+    CategoryService categoryService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new CategoryController(categoryService))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    public void listRecipes() throws Exception {
+        Category category = new Category();
+        category.setId(3L);
+        category.setDescription("Mexican");
+        Page<RecipeSummary> page = new PageImpl<>(Collections.singletonList(mock(RecipeSummary.class)));
+
+        when(categoryService.findById(3L)).thenReturn(category);
+        when(categoryService.getRecipeSummaries(eq(3L), any())).thenReturn(page);
+
+        mockMvc.perform(get("/category/3/recipes").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("category/recipes"))
+                .andExpect(model().attribute("category", category))
+                .andExpect(model().attribute("page", page))
+                .andExpect(model().attributeExists("recipes"));
+
+        verify(categoryService).getRecipeSummaries(3L, PageRequest.of(1, 5, Sort.by("id")));
+    }
+}
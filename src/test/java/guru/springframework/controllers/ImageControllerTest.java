@@ -1,16 +1,21 @@
 package guru.springframework.controllers;
 
 import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.services.ImageService;
 import guru.springframework.services.RecipeService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
+
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -66,6 +71,87 @@ public class ImageControllerTest {
         verify(imageService, times(1)).saveImageFile(anyLong(), any());
     }
 
+    @Test
+    public void renderImage() throws Exception {
+        //given
+        when(imageService.findImageMetadata(anyLong())).thenReturn(image());
+        when(imageService.loadImage(any())).thenReturn(new ByteArrayResource("fake image text".getBytes()));
+
+        //when
+        mockMvc.perform(get("/recipe/1/recipeimage"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes("fake image text".getBytes()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    @Test
+    public void renderImageNotModified() throws Exception {
+        //given
+        when(imageService.findImageMetadata(anyLong())).thenReturn(image());
+
+        //when
+        mockMvc.perform(get("/recipe/1/recipeimage").header(HttpHeaders.IF_NONE_MATCH, "\"1-abc\""))
+                .andExpect(status().isNotModified());
+
+        //then
+        verify(imageService, never()).loadImage(any());
+    }
+
+    @Test
+    public void renderImageRange() throws Exception {
+        //given
+        when(imageService.findImageMetadata(anyLong())).thenReturn(image());
+        when(imageService.loadImage(any())).thenReturn(new ByteArrayResource("fake image text".getBytes()));
+
+        //when
+        mockMvc.perform(get("/recipe/1/recipeimage").header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("fake".getBytes()));
+    }
+
+    @Test
+    public void renderThumbnail() throws Exception {
+        //given
+        when(imageService.findImageMetadata(anyLong())).thenReturn(image());
+        when(imageService.loadThumbnail(any(), eq(100))).thenReturn(new ByteArrayResource("thumb".getBytes()));
+
+        //when
+        mockMvc.perform(get("/recipe/1/recipeimage").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes("thumb".getBytes()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc-100\""));
 
+        //then
+        verify(imageService, never()).loadImage(any());
+    }
 
+    @Test
+    public void renderThumbnailFallsBackToOriginal() throws Exception {
+        //given
+        when(imageService.findImageMetadata(anyLong())).thenReturn(image());
+        when(imageService.loadImage(any())).thenReturn(new ByteArrayResource("fake image text".getBytes()));
+
+        //when
+        mockMvc.perform(get("/recipe/1/recipeimage").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-abc\""));
+    }
+
+    @Test
+    public void renderImageNotFound() throws Exception {
+        mockMvc.perform(get("/recipe/1/recipeimage"))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImageMetadata image() {
+        ImageMetadata image = new ImageMetadata();
+        image.setStorageKey("1/abc");
+        image.setContentType("image/jpeg");
+        image.setLastModified(Instant.parse("2020-01-01T00:00:00Z"));
+        return image;
+    }
 }
@@ -1,23 +1,38 @@
 package guru.springframework.controllers;
 
 
-import guru.springframework.domain.Recipe;
+import guru.springframework.commands.KeysetPage;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.search.FacetCounts;
+import guru.springframework.search.FacetFilter;
+import guru.springframework.search.RecipeFacetIndex;
 import guru.springframework.services.RecipeService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -28,25 +43,36 @@ public class IndexControllerTest {
     @Mock
     RecipeService recipeService;
 
+    @Mock
+    RecipeFacetIndex facetIndex;
+
     @Mock
     Model model;
 
-    ArgumentCaptor<Set<Recipe>> argumentCaptor;
+    ArgumentCaptor<List<RecipeSummary>> argumentCaptor;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        indexController = new IndexController(recipeService);
-        argumentCaptor = ArgumentCaptor.forClass(Set.class);
+        indexController = new IndexController(recipeService, facetIndex);
+        argumentCaptor = ArgumentCaptor.forClass(List.class);
     }
 
     @Test
     public void testMockMVC() throws Exception {
-       MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController).build();
+       MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController)
+               .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+               .build();
 
-       mockMvc.perform(MockMvcRequestBuilders.get("/"))
+       when(recipeService.getRecipeSummaries(any())).thenReturn(Page.empty());
+
+       mockMvc.perform(MockMvcRequestBuilders.get("/").param("page", "2").param("size", "5").param("sort", "description"))
                .andExpect(status().isOk())
        .andExpect(view().name("index"));
+
+       ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+       verify(recipeService).getRecipeSummaries(pageableCaptor.capture());
+       assertEquals(PageRequest.of(2, 5, Sort.by("description")), pageableCaptor.getValue());
     }
 
 
@@ -54,24 +80,72 @@ public class IndexControllerTest {
     public void getIndexPage() {
 
         //given
-        Set<Recipe> recipes = new HashSet<>();
-        recipes.add(new Recipe());
-        recipes.add(new Recipe());
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<RecipeSummary> recipes = new PageImpl<>(
+                Arrays.asList(mock(RecipeSummary.class), mock(RecipeSummary.class)), pageable, 2);
 
         //when
-        when(recipeService.getRecipes()).thenReturn(recipes);
-        String viewName = indexController.getIndexPage(model);
+        when(recipeService.getRecipeSummaries(pageable)).thenReturn(recipes);
+        String viewName = indexController.getIndexPage(model, new FacetFilter(), pageable);
 
         //then
         assertEquals("index", viewName);
-        verify(recipeService, times(1)).getRecipes();
+        verify(recipeService, times(1)).getRecipeSummaries(pageable);
+        verify(recipeService, never()).getRecipes();
         verify(model, times(1)).addAttribute(eq("recipes"), argumentCaptor.capture());
+        verify(model, times(1)).addAttribute("page", recipes);
+        verify(model, times(1)).addAttribute(eq("facets"), any());
+        verify(facetIndex, never()).search(any(), any());
 
         // capturedArgument variable contains the value that was passed to the model when the addAttribute method
         // is invoked
-        Set<Recipe> capturedArgument = argumentCaptor.getValue();
+        List<RecipeSummary> capturedArgument = argumentCaptor.getValue();
 
-        System.out.println("Captured argument" + capturedArgument);
         assertEquals(2, capturedArgument.size());
     }
+
+    @Test
+    public void getIndexPageAfter() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+
+        when(recipeService.getRecipeSummariesAfter(10L, 5))
+                .thenReturn(new KeysetPage<>(Collections.singletonList(mock(RecipeSummary.class)), 11L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/").param("after", "10").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("nextAfter", 11L))
+                .andExpect(model().attributeDoesNotExist("page"));
+
+        verify(recipeService, never()).getRecipeSummaries(any());
+    }
+
+    @Test
+    public void getIndexPageFiltered() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(indexController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+
+        Page<Long> ids = new PageImpl<>(Collections.singletonList(1L), PageRequest.of(0, 20), 1);
+        FacetCounts counts = new FacetCounts(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList());
+        ArgumentCaptor<FacetFilter> filterCaptor = ArgumentCaptor.forClass(FacetFilter.class);
+        when(facetIndex.search(filterCaptor.capture(), any())).thenReturn(ids);
+        when(facetIndex.count(any())).thenReturn(counts);
+        when(recipeService.getRecipeSummariesIn(ids)).thenReturn(Page.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/").param("category", "3")
+                .param("difficulty", "EASY", "MODERATE"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("facets", counts));
+
+        FacetFilter filter = filterCaptor.getValue();
+        assertEquals(Collections.singleton(3L), filter.getCategory());
+        assertEquals(2, filter.getDifficulty().size());
+        assertTrue(filter.getDifficulty().contains(Difficulty.MODERATE));
+        verify(recipeService, never()).getRecipeSummaries(any());
+    }
 }
@@ -1,16 +1,24 @@
 package guru.springframework.controllers;
 
 import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.ScaledRecipe;
 import guru.springframework.domain.Recipe;
+import guru.springframework.services.RecipeScalingService;
 import guru.springframework.services.RecipeService;
+import guru.springframework.web.RenderedPageCacheFilter;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.http.MediaType;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,12 +33,15 @@ public class RecipeControllerTest {
     @Mock
     RecipeService recipeService;
 
+    @Mock
+    RecipeScalingService recipeScalingService;
+
     MockMvc mockMvc;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        recipeController = new RecipeController(recipeService);
+        recipeController = new RecipeController(recipeService, recipeScalingService);
         mockMvc = MockMvcBuilders.standaloneSetup(recipeController).build();
     }
 
@@ -46,7 +57,76 @@ public class RecipeControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.get("/recipe/1/show"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("recipe/show"))
+                .andExpect(model().attributeExists("recipe"))
+                .andExpect(model().attributeDoesNotExist("scaled"));
+
+        verify(recipeScalingService, never()).scale(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetScaledRecipe() throws Exception {
+        ScaledRecipe scaled = new ScaledRecipe(1L, "Tacos", 4, 8, Collections.emptyList());
+        when(recipeService.findWithoutIngredientsById(1L)).thenReturn(new Recipe());
+        when(recipeScalingService.scale(1L, 8)).thenReturn(scaled);
+
+        mockMvc.perform(get("/recipe/1/show").param("servings", "8"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("scaled", scaled))
                 .andExpect(model().attributeExists("recipe"));
+
+        // the ingredients come from the scaling plan, the recipe is not loaded with them again
+        verify(recipeService, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testGetRecipeSetsETag() throws Exception {
+        when(recipeService.findVersionById(1L)).thenReturn(3L);
+        when(recipeService.findById(anyLong())).thenReturn(new Recipe());
+
+        mockMvc.perform(get("/recipe/1/show"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+    }
+
+    @Test
+    public void testGetRecipeReusesVersionReadByPageCache() throws Exception {
+        when(recipeService.findById(anyLong())).thenReturn(new Recipe());
+
+        mockMvc.perform(get("/recipe/1/show").requestAttr(RenderedPageCacheFilter.RECIPE_VERSION_ATTRIBUTE, 4L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+
+        verify(recipeService, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    public void testGetRecipeNotModified() throws Exception {
+        when(recipeService.findVersionById(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/recipe/1/show").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(recipeService, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testPostStaleRecipeForm() throws Exception {
+        RecipeCommand current = new RecipeCommand();
+        current.setId(2L);
+        current.setVersion(4L);
+
+        when(recipeService.saveRecipeCommand(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Recipe.class, 2L));
+        when(recipeService.findCommandById(2L)).thenReturn(current);
+
+        mockMvc.perform(post("/recipe")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("id", "2")
+                        .param("version", "3"))
+                .andExpect(status().isConflict())
+                .andExpect(view().name("recipe/recipeform"))
+                .andExpect(model().attribute("recipe", current))
+                .andExpect(model().attribute("conflict", true));
     }
 
     @Test
@@ -0,0 +1,319 @@
+package guru.springframework.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.KeysetPage;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+import guru.springframework.commands.ScaledIngredient;
+import guru.springframework.commands.ScaledRecipe;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.exceptions.NotFoundException;
+import guru.springframework.services.IngredientService;
+import guru.springframework.services.RecipeExportService;
+import guru.springframework.services.RecipeImportService;
+import guru.springframework.services.RecipeScalingService;
+import guru.springframework.services.RecipeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RecipeRestControllerTest {
+
+    @Mock
+    RecipeService recipeService;
+
+    @Mock
+    IngredientService ingredientService;
+
+    @Mock
+    RecipeImportService recipeImportService;
+
+    @Mock
+    RecipeExportService recipeExportService;
+
+    @Mock
+    RecipeScalingService recipeScalingService;
+
+    List<RecipeCommand> imported = new ArrayList<>();
+
+    RecipeRestController controller;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        controller = new RecipeRestController(recipeService, ingredientService, recipeImportService,
+                recipeExportService, recipeScalingService, new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    public void listRecipes() throws Exception {
+        //given
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(1L);
+        recipe.setDescription("Tacos");
+
+        when(recipeService.findCommands(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(recipe), PageRequest.of(0, 20), 1));
+
+        //when
+        mockMvc.perform(get("/api/v1/recipes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].description").value("Tacos"))
+                .andExpect(jsonPath("$.content[0].ingredients").isArray())
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        //then
+        verify(recipeService, times(1)).findCommands(PageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Test
+    public void listRecipesWithFields() throws Exception {
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(1L);
+        recipe.setDescription("Tacos");
+
+        when(recipeService.findCommands(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(recipe)));
+
+        mockMvc.perform(get("/api/v1/recipes").param("fields", "id,description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].description").value("Tacos"))
+                .andExpect(jsonPath("$.content[0].ingredients").doesNotExist())
+                .andExpect(jsonPath("$.content[0].directions").doesNotExist());
+    }
+
+    @Test
+    public void getRecipe() throws Exception {
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(1L);
+        recipe.setServings(4);
+
+        when(recipeService.findCommandById(1L)).thenReturn(recipe);
+
+        mockMvc.perform(get("/api/v1/recipes/1").param("fields", "servings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.servings").value(4))
+                .andExpect(jsonPath("$.id").doesNotExist());
+    }
+
+    @Test
+    public void unknownRecipeIsNotFound() throws Exception {
+        when(recipeService.findCommandById(9L)).thenThrow(new NotFoundException("Recipe not found for id: 9"));
+        when(recipeScalingService.scale(9L, 8)).thenThrow(new NotFoundException("Recipe not found for id: 9"));
+        when(ingredientService.findByRecipeId(eq(9L), any(Pageable.class)))
+                .thenThrow(new NotFoundException("Recipe not found for id: 9"));
+
+        mockMvc.perform(get("/api/v1/recipes/9"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/recipes/9").param("servings", "8"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/recipes/9/ingredients"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getScaledRecipe() throws Exception {
+        ScaledRecipe scaled = new ScaledRecipe(1L, "Tacos", 4, 8, Collections.singletonList(
+                new ScaledIngredient(2L, "avocado", new BigDecimal("1.5"), "Each")));
+
+        when(recipeService.findCommandById(1L)).thenThrow(new AssertionError("the scaled recipe is not loaded"));
+        when(recipeScalingService.scale(1L, 8)).thenReturn(scaled);
+
+        mockMvc.perform(get("/api/v1/recipes/1").param("servings", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.servings").value(8))
+                .andExpect(jsonPath("$.originalServings").value(4))
+                .andExpect(jsonPath("$.ingredients[0].amount").value(1.5))
+                .andExpect(jsonPath("$.ingredients[0].unitOfMeasure").value("Each"));
+    }
+
+    @Test
+    public void listIngredients() throws Exception {
+        IngredientCommand ingredient = new IngredientCommand();
+        ingredient.setId(2L);
+        ingredient.setRecipeId(1L);
+        ingredient.setDescription("avocado");
+
+        when(ingredientService.findByRecipeId(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(ingredient)));
+
+        mockMvc.perform(get("/api/v1/recipes/1/ingredients").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.content[0].description").value("avocado"));
+
+        verify(ingredientService).findByRecipeId(1L, PageRequest.of(1, 5, Sort.by("id")));
+    }
+
+    @Test
+    public void importJson() throws Exception {
+        givenImport();
+
+        mockMvc.perform(post("/api/v1/recipes/import").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"description\":\"Tacos\",\"ingredients\":[{\"description\":\"avocado\"}]},"
+                        + "{\"description\":\"Guacamole\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        assertEquals(2, imported.size());
+        assertEquals("Tacos", imported.get(0).getDescription());
+        assertEquals(1, imported.get(0).getIngredients().size());
+        assertEquals("Guacamole", imported.get(1).getDescription());
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        givenImport();
+
+        mockMvc.perform(post("/api/v1/recipes/import").contentType("application/x-ndjson")
+                .content("{\"description\":\"Tacos\"}\n{\"description\":\"Guacamole\"}\n"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, imported.size());
+        assertEquals("Guacamole", imported.get(1).getDescription());
+    }
+
+    @Test
+    public void importCsv() throws Exception {
+        givenImport();
+
+        mockMvc.perform(post("/api/v1/recipes/import").contentType("text/csv")
+                .content("description,servings,difficulty,directions\n"
+                        + "Tacos,4,EASY,\"Warm the tortillas, then fill\"\n"
+                        + "Guacamole,,MODERATE,Mash\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        assertEquals(2, imported.size());
+        assertEquals(Integer.valueOf(4), imported.get(0).getServings());
+        assertEquals("Warm the tortillas, then fill", imported.get(0).getDirections());
+        assertEquals("MODERATE", imported.get(1).getDifficulty().name());
+    }
+
+    @Test
+    public void exportNdjson() throws Exception {
+        givenExport();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/recipes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=recipes.ndjson"))
+                .andExpect(content().string(containsString("\"description\":\"Tacos\"")));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Guacamole", new ObjectMapper().readValue(lines[1], RecipeCommand.class).getDescription());
+    }
+
+    @Test
+    public void exportCsv() throws Exception {
+        givenExport();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/recipes/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("id,description,prepTime,cookTime,servings,source,url,difficulty,directions\n"
+                        + "1,Tacos,,,4,,,EASY,\"Warm the tortillas, then fill\"\n"
+                        + "2,Guacamole,,,,,,,\n"));
+    }
+
+    private void givenExport() {
+        RecipeCommand tacos = new RecipeCommand();
+        tacos.setId(1L);
+        tacos.setDescription("Tacos");
+        tacos.setServings(4);
+        tacos.setDifficulty(Difficulty.EASY);
+        tacos.setDirections("Warm the tortillas, then fill");
+        tacos.getIngredients().add(new IngredientCommand());
+        RecipeCommand guacamole = new RecipeCommand();
+        guacamole.setId(2L);
+        guacamole.setDescription("Guacamole");
+
+        doAnswer(invocation -> {
+            Consumer<RecipeCommand> consumer = invocation.getArgument(0);
+            consumer.accept(tacos);
+            consumer.accept(guacamole);
+            return null;
+        }).when(recipeExportService).exportRecipes(any());
+    }
+
+    private void givenImport() {
+        when(recipeImportService.importRecipes(any())).thenAnswer(invocation -> {
+            Iterator<RecipeCommand> commands = invocation.getArgument(0);
+            commands.forEachRemaining(imported::add);
+            return new RecipeImportReport(imported.size(), 1, 5);
+        });
+    }
+
+    @Test
+    public void listSummaries() throws Exception {
+        //given
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 1L);
+        row.put("description", "Tacos");
+        RecipeSummary summary = new SpelAwareProxyProjectionFactory().createProjection(RecipeSummary.class, row);
+
+        when(recipeService.getRecipeSummariesAfter(isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(Collections.singletonList(summary), null));
+
+        //when
+        mockMvc.perform(get("/api/v1/recipes/summaries").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].description").value("Tacos"))
+                .andExpect(jsonPath("$.nextAfter").value(nullValue()));
+
+        //then
+        verify(recipeService, times(1)).getRecipeSummariesAfter(null, 20);
+    }
+}
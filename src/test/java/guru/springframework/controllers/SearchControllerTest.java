@@ -0,0 +1,87 @@
+package guru.springframework.controllers;
+
+import guru.springframework.search.PantryIndex;
+import guru.springframework.search.PantryMatch;
+import guru.springframework.search.PantryMatchMode;
+import guru.springframework.search.RecipeSearchHit;
+import guru.springframework.search.RecipeSearchIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class SearchControllerTest {
+
+    @Mock
+    RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    PantryIndex pantryIndex;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new SearchController(recipeSearchIndex, pantryIndex))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    public void search() throws Exception {
+        when(recipeSearchIndex.search(eq("tacos"), any())).thenReturn(new PageImpl<>(
+                Collections.singletonList(new RecipeSearchHit(1L, "Tacos", 1.5f)), PageRequest.of(1, 10), 11));
+
+        mockMvc.perform(get("/recipe/search").param("q", "tacos").param("page", "1").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("recipe/search"))
+                .andExpect(model().attribute("q", "tacos"))
+                .andExpect(model().attribute("hits", hasSize(1)))
+                .andExpect(model().attributeExists("page"));
+
+        verify(recipeSearchIndex).search("tacos", PageRequest.of(1, 10));
+    }
+
+    @Test
+    public void searchWithoutQuery() throws Exception {
+        when(recipeSearchIndex.search(eq(""), any())).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        mockMvc.perform(get("/recipe/search"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("recipe/search"))
+                .andExpect(model().attribute("hits", hasSize(0)));
+
+        verify(recipeSearchIndex).search("", PageRequest.of(0, 20));
+    }
+
+    @Test
+    public void pantry() throws Exception {
+        when(pantryIndex.search(any(), any(), any())).thenReturn(new PageImpl<>(
+                Collections.singletonList(new PantryMatch(1L, "Guacamole", 3, 4))));
+
+        mockMvc.perform(get("/recipe/pantry").param("items", "avocado, kosher salt,lime").param("match", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("recipe/pantry"))
+                .andExpect(model().attribute("items", "avocado, kosher salt, lime"))
+                .andExpect(model().attribute("matches", hasSize(1)));
+
+        verify(pantryIndex).search(Arrays.asList("avocado", "kosher salt", "lime"), PantryMatchMode.ALL,
+                PageRequest.of(0, 20));
+    }
+}
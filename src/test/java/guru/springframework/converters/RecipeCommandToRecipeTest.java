@@ -0,0 +1,78 @@
+package guru.springframework.converters;
+
+import guru.springframework.commands.CategoryCommand;
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.NotesCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecipeCommandToRecipeTest {
+
+    RecipeCommandToRecipe converter;
+
+    @Before
+    public void setUp() throws Exception {
+        converter = new RecipeCommandToRecipeImpl(new CategoryCommandToCategoryImpl(),
+                new IngredientCommandToIngredientImpl(new UnitOfMeasureCommandToUnitOfMeasureImpl()),
+                new NotesCommandToNotesImpl());
+    }
+
+    @Test
+    public void convertNull() {
+        assertNull(converter.convert(null));
+    }
+
+    @Test
+    public void convert() {
+        //given
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(4L);
+        IngredientCommand ingredient = new IngredientCommand();
+        ingredient.setId(3L);
+        ingredient.setUnitOfMeasure(uom);
+        CategoryCommand category = new CategoryCommand();
+        category.setId(2L);
+        NotesCommand notes = new NotesCommand();
+        notes.setRecipeNotes("notes");
+
+        RecipeCommand command = new RecipeCommand();
+        command.setId(1L);
+        command.setVersion(5L);
+        command.setDescription("Tacos");
+        command.getIngredients().add(ingredient);
+        command.getCategories().add(category);
+        command.setNotes(notes);
+
+        //when
+        Recipe recipe = converter.convert(command);
+
+        //then
+        assertEquals(Long.valueOf(1L), recipe.getId());
+        assertEquals(Long.valueOf(5L), recipe.getVersion());
+        assertEquals("Tacos", recipe.getDescription());
+        assertEquals(1, recipe.getCategories().size());
+        Ingredient convertedIngredient = recipe.getIngredients().iterator().next();
+        assertSame(recipe, convertedIngredient.getRecipe());
+        assertEquals(Long.valueOf(4L), convertedIngredient.getUom().getId());
+        assertSame(recipe, recipe.getNote().getRecipe());
+    }
+
+    @Test
+    public void convertWithoutCollectionsOrNotes() {
+        RecipeCommand command = new RecipeCommand();
+        command.setIngredients(null);
+        command.setCategories(null);
+
+        Recipe recipe = converter.convert(command);
+
+        assertNull(recipe.getNote());
+        assertTrue(recipe.getIngredients().isEmpty());
+        assertTrue(recipe.getCategories().isEmpty());
+    }
+}
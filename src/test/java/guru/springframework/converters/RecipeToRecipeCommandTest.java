@@ -0,0 +1,107 @@
+package guru.springframework.converters;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Note;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class RecipeToRecipeCommandTest {
+
+    RecipeToRecipeCommand converter;
+
+    @Before
+    public void setUp() throws Exception {
+        converter = new RecipeToRecipeCommandImpl(new CategoryToCategoryCommandImpl(),
+                new IngredientToIngredientCommandImpl(new UnitOfMeasureToUnitOfMeasureCommandImpl()),
+                new NotesToNotesCommandImpl());
+    }
+
+    @Test
+    public void convertNull() {
+        assertNull(converter.convert(null));
+    }
+
+    @Test
+    public void convert() {
+        RecipeCommand command = converter.convert(recipe(1L, 3));
+
+        assertEquals(Long.valueOf(1L), command.getId());
+        assertEquals("Recipe 1", command.getDescription());
+        assertEquals(Difficulty.EASY, command.getDifficulty());
+        assertEquals(3, command.getIngredients().size());
+        assertEquals(1, command.getCategories().size());
+        assertEquals("notes 1", command.getNotes().getRecipeNotes());
+        assertTrue(command.getIngredients().stream().allMatch(ingredient ->
+                ingredient.getRecipeId().equals(1L) && ingredient.getUnitOfMeasure().getId().equals(4L)));
+    }
+
+    @Test
+    public void convertConcurrently() throws Exception {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (long thread = 0; thread < threads; thread++) {
+                Recipe recipe = recipe(thread, (int) thread + 1);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        RecipeCommand command = converter.convert(recipe);
+                        // every thread has to see only its own recipe in the result
+                        assertEquals(recipe.getId(), command.getId());
+                        assertEquals(recipe.getDescription(), command.getDescription());
+                        assertEquals(recipe.getIngredients().size(), command.getIngredients().size());
+                        assertEquals(recipe.getNote().getRecipeNotes(), command.getNotes().getRecipeNotes());
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Recipe recipe(long id, int ingredients) {
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(4L);
+        Category category = new Category();
+        category.setId(2L);
+        Note note = new Note();
+        note.setRecipeNotes("notes " + id);
+
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setDescription("Recipe " + id);
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setNotes(note);
+        recipe.getCategories().add(category);
+        for (int i = 0; i < ingredients; i++) {
+            Ingredient ingredient = new Ingredient("ingredient " + i, BigDecimal.valueOf(i), uom);
+            ingredient.setId((long) i);
+            recipe.addIngredient(ingredient);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,88 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.PersistenceUnitUtil;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class IngredientRepositoryIT {
+
+    @Autowired
+    IngredientRepository ingredientRepository;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    Long recipeId;
+    Long ingredientId;
+
+    @Before
+    public void setUp() throws Exception {
+        UnitOfMeasure cup = unitOfMeasureRepository.findByDescription("Cup").get();
+
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Guacamole");
+        Ingredient avocado = new Ingredient("avocado", new BigDecimal(2), cup);
+        recipe.addIngredient(avocado);
+
+        recipeId = entityManager.persist(recipe).getId();
+        ingredientId = avocado.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findByIdAndRecipeId() {
+        Ingredient ingredient = ingredientRepository.findByIdAndRecipeId(ingredientId, recipeId).get();
+
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertEquals("avocado", ingredient.getDescription());
+        assertTrue(util.isLoaded(ingredient, "uom"));
+        assertEquals("Cup", ingredient.getUom().getDescription());
+        assertEquals(recipeId, ingredient.getRecipe().getId());
+        assertFalse(util.isLoaded(ingredient.getRecipe()));
+    }
+
+    @Test
+    public void findByIdAndRecipeIdOfOtherRecipe() {
+        Optional<Ingredient> ingredient = ingredientRepository.findByIdAndRecipeId(ingredientId, recipeId + 1);
+
+        assertFalse(ingredient.isPresent());
+    }
+
+    @Test
+    public void findByRecipeId() {
+        Page<Ingredient> page = ingredientRepository.findByRecipeId(recipeId, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("Cup", page.getContent().get(0).getUom().getDescription());
+        assertEquals(0, ingredientRepository.findByRecipeId(recipeId + 1, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void deleteByIdAndRecipeId() {
+        assertEquals(0, ingredientRepository.deleteByIdAndRecipeId(ingredientId, recipeId + 1));
+        assertEquals(1, ingredientRepository.deleteByIdAndRecipeId(ingredientId, recipeId));
+
+        assertFalse(ingredientRepository.findById(ingredientId).isPresent());
+    }
+}
@@ -0,0 +1,216 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.domain.ImageMetadata;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Note;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeSummary;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.PersistenceUnitUtil;
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class RecipeRepositoryIT {
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    Long recipeId;
+
+    @Before
+    public void setUp() throws Exception {
+        ImageMetadata image = new ImageMetadata();
+        image.setStorageKey("1/image");
+        image.setContentType("image/jpeg");
+
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Tacos");
+        recipe.setImage(image);
+
+        recipeId = entityManager.persistAndFlush(recipe).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    public void findByIdLeavesImageUnloaded() {
+        Recipe recipe = recipeRepository.findById(recipeId).get();
+
+        assertNotNull(recipe.getImage());
+        assertFalse(entityManager.getEntityManager().getEntityManagerFactory()
+                .getPersistenceUnitUtil().isLoaded(recipe, "image"));
+    }
+
+    @Test
+    public void findImageByRecipeId() {
+        Optional<ImageMetadata> image = recipeRepository.findImageByRecipeId(recipeId);
+
+        assertEquals("1/image", image.get().getStorageKey());
+    }
+
+    @Test
+    public void findImageByRecipeIdWithoutImage() {
+        Recipe recipe = new Recipe();
+        Long id = entityManager.persistAndFlush(recipe).getId();
+
+        assertFalse(recipeRepository.findImageByRecipeId(id).isPresent());
+    }
+
+    @Test
+    public void findSummaries() {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Guacamole");
+        Long guacamoleId = entityManager.persistAndFlush(recipe).getId();
+
+        Page<RecipeSummary> page = recipeRepository.findSummaries(PageRequest.of(0, 1, Sort.by("description")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(guacamoleId, page.getContent().get(0).getId());
+        assertEquals("Guacamole", page.getContent().get(0).getDescription());
+        assertNull(page.getContent().get(0).getImageId());
+
+        RecipeSummary tacos = recipeRepository.findSummaries(PageRequest.of(1, 1, Sort.by("description"))).getContent().get(0);
+        assertEquals(recipeId, tacos.getId());
+        assertNotNull(tacos.getImageId());
+    }
+
+    @Test
+    public void findSummariesAfter() {
+        Recipe recipe = new Recipe();
+        recipe.setDescription("Guacamole");
+        Long guacamoleId = entityManager.persistAndFlush(recipe).getId();
+
+        List<RecipeSummary> firstPage = recipeRepository.findSummariesAfter(0L, PageRequest.of(0, 1));
+        assertEquals(1, firstPage.size());
+        assertEquals(recipeId, firstPage.get(0).getId());
+
+        List<RecipeSummary> secondPage = recipeRepository.findSummariesAfter(recipeId, PageRequest.of(0, 1));
+        assertEquals(1, secondPage.size());
+        assertEquals(guacamoleId, secondPage.get(0).getId());
+
+        assertTrue(recipeRepository.findSummariesAfter(guacamoleId, PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    public void findDetailedById() {
+        Category category = new Category();
+        category.setDescription("Mexican");
+        entityManager.persist(category);
+
+        Recipe recipe = recipeRepository.findById(recipeId).get();
+        recipe.addIngredient(new Ingredient("avocado", new BigDecimal(2), null));
+        recipe.getCategories().add(category);
+        Note note = new Note();
+        note.setRecipeNotes("notes");
+        recipe.setNotes(note);
+        entityManager.flush();
+        entityManager.clear();
+
+        Recipe detailed = recipeRepository.findDetailedById(recipeId).get();
+
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertTrue(util.isLoaded(detailed, "ingredients"));
+        assertTrue(util.isLoaded(detailed, "categories"));
+        assertTrue(util.isLoaded(detailed, "note"));
+        assertEquals(1, detailed.getIngredients().size());
+        assertEquals(1, detailed.getCategories().size());
+        assertFalse(util.isLoaded(detailed, "image"));
+    }
+
+    @Test
+    public void findDetailedByIdIn() {
+        Recipe recipe = recipeRepository.findById(recipeId).get();
+        recipe.addIngredient(new Ingredient("avocado", new BigDecimal(2), null));
+        recipe.addIngredient(new Ingredient("salt", new BigDecimal(1), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Recipe> recipes = recipeRepository.findDetailedByIdIn(Collections.singletonList(recipeId));
+
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertEquals(recipeId, recipes.get(0).getId());
+        assertTrue(util.isLoaded(recipes.get(0), "ingredients"));
+        assertEquals(2, recipes.get(0).getIngredients().size());
+    }
+
+    @Test
+    public void findIdsByFacets() {
+        Category category = new Category();
+        category.setDescription("Mexican");
+        entityManager.persist(category);
+
+        Recipe recipe = recipeRepository.findById(recipeId).get();
+        recipe.setDifficulty(Difficulty.EASY);
+        recipe.setPrepTime(15);
+        recipe.setCookTime(9);
+        recipe.getCategories().add(category);
+        entityManager.persistAndFlush(new Recipe());
+        entityManager.clear();
+
+        assertEquals(Collections.singletonList(recipeId), recipeRepository.findIdsByCategoryId(category.getId()));
+        assertEquals(Collections.singletonList(recipeId), recipeRepository.findIdsByDifficulty(Difficulty.EASY));
+        assertTrue(recipeRepository.findIdsByDifficulty(Difficulty.HARDEST).isEmpty());
+        assertEquals(Collections.singletonList(recipeId), recipeRepository.findIdsByPrepTimeRange(15, 30));
+        assertTrue(recipeRepository.findIdsByPrepTimeRange(0, 15).isEmpty());
+        assertEquals(Collections.singletonList(recipeId), recipeRepository.findIdsByCookTimeRange(0, 15));
+    }
+
+    @Test
+    public void findSummariesByIdIn() {
+        Long guacamoleId = entityManager.persistAndFlush(new Recipe()).getId();
+
+        List<RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(Arrays.asList(guacamoleId, recipeId));
+
+        assertEquals(Arrays.asList(recipeId, guacamoleId),
+                summaries.stream().map(RecipeSummary::getId).collect(Collectors.toList()));
+        assertNotNull(summaries.get(0).getImageId());
+    }
+
+    @Test
+    public void findSummariesByCategoryId() {
+        Category category = new Category();
+        category.setDescription("Mexican");
+        entityManager.persist(category);
+
+        Recipe guacamole = new Recipe();
+        guacamole.setDescription("Guacamole");
+        guacamole.getCategories().add(category);
+        entityManager.persist(guacamole);
+        recipeRepository.findById(recipeId).get().getCategories().add(category);
+        entityManager.persistAndFlush(new Recipe());
+        entityManager.clear();
+
+        List<RecipeSummary> firstPage = recipeRepository.findSummariesByCategoryId(category.getId(),
+                PageRequest.of(0, 1, Sort.by("description")));
+
+        assertEquals(1, firstPage.size());
+        assertEquals("Guacamole", firstPage.get(0).getDescription());
+        assertEquals(recipeId, recipeRepository.findSummariesByCategoryId(category.getId(),
+                PageRequest.of(1, 1, Sort.by("description"))).get(0).getId());
+        assertEquals(2, recipeRepository.countByCategoryId(category.getId()));
+    }
+}
@@ -0,0 +1,179 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PantryIndexTest {
+
+    PantryIndex pantryIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        pantryIndex = new PantryIndex();
+        pantryIndex.index(recipe(1L, "Perfect Guacamole", "ripe avocados", "Kosher salt", "fresh lime juice",
+                "minced red onion"));
+        pantryIndex.index(recipe(2L, "Avocado Toast", "avocado", "sourdough bread"));
+        pantryIndex.index(recipe(3L, "Orange Glazed Chicken", "chicken thighs", "orange juice", "salt"));
+    }
+
+    @Test
+    public void all() {
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocado", "Sourdough Bread", "salt"),
+                PantryMatchMode.ALL, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        PantryMatch match = page.getContent().get(0);
+        assertEquals(Long.valueOf(2L), match.getId());
+        assertEquals("Avocado Toast", match.getDescription());
+        assertEquals(2, match.getMatchedIngredients());
+        assertEquals(0, match.getMissingIngredients());
+    }
+
+    @Test
+    public void mostRanksByMissingIngredients() {
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocados", "salt", "lime juice", "chicken"),
+                PantryMatchMode.MOST, PageRequest.of(0, 10));
+
+        assertEquals(Arrays.asList(1L, 3L, 2L), ids(page));
+        assertEquals(3, page.getContent().get(0).getMatchedIngredients());
+        assertEquals(1, page.getContent().get(0).getMissingIngredients());
+        assertEquals("orange juice is not covered by lime juice", 1, page.getContent().get(1).getMissingIngredients());
+        assertEquals(2, page.getContent().get(1).getMatchedIngredients());
+    }
+
+    @Test
+    public void pages() {
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocado", "salt"), PantryMatchMode.MOST,
+                PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(1, page.getContent().size());
+    }
+
+    @Test
+    public void reindexReplacesIngredients() {
+        pantryIndex.index(recipe(2L, "Avocado Toast", "tomato", "sourdough bread"));
+
+        assertEquals(Arrays.asList(1L), ids(pantryIndex.search(Arrays.asList("avocado"), PantryMatchMode.MOST,
+                PageRequest.of(0, 10))));
+        assertEquals(Arrays.asList(2L), ids(pantryIndex.search(Arrays.asList("tomatoes", "bread"), PantryMatchMode.ALL,
+                PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void delete() {
+        pantryIndex.delete(1L);
+        pantryIndex.index(recipe(4L, "Guacamole", "avocado", "salt"));
+
+        assertEquals(Arrays.asList(4L, 2L, 3L), ids(pantryIndex.search(Arrays.asList("avocado", "salt"),
+                PantryMatchMode.MOST, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void reclaimsTheSlotsOfReplacedRecipes() {
+        for (int i = 0; i < 2000; i++) {
+            pantryIndex.index(recipe(2L, "Avocado Toast", "avocado", "bread", "ingredient" + i));
+        }
+
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocado", "bread", "ingredient1999"),
+                PantryMatchMode.ALL, PageRequest.of(0, 10));
+        assertEquals(Arrays.asList(2L), ids(page));
+        assertEquals(Arrays.asList(3L), ids(pantryIndex.search(Arrays.asList("chicken", "orange juice", "salt"),
+                PantryMatchMode.ALL, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void recipeWithManyIngredients() {
+        String[] ingredients = new String[50000];
+        for (int i = 0; i < ingredients.length; i++) {
+            ingredients[i] = "spice" + i;
+        }
+        pantryIndex.index(recipe(4L, "Everything Curry", ingredients));
+
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("spice7", "avocado"), PantryMatchMode.MOST,
+                PageRequest.of(0, 10));
+
+        assertEquals(Arrays.asList(2L, 1L, 4L), ids(page));
+        assertEquals(49999, page.getContent().get(2).getMissingIngredients());
+    }
+
+    @Test
+    public void deepPagesKeepTheRanking() {
+        for (long id = 10; id < 60; id++) {
+            String[] ingredients = new String[(int) (id % 7) + 1];
+            Arrays.fill(ingredients, "flour");
+            pantryIndex.index(recipe(id, "Bread " + id, ingredients));
+        }
+
+        List<Long> all = ids(pantryIndex.search(Arrays.asList("flour"), PantryMatchMode.ALL, PageRequest.of(0, 100)));
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            paged.addAll(ids(pantryIndex.search(Arrays.asList("flour"), PantryMatchMode.ALL, PageRequest.of(page, 11))));
+        }
+
+        assertEquals(50, all.size());
+        assertEquals(all, paged);
+        assertEquals(Long.valueOf(13L), all.get(0));
+    }
+
+    @Test
+    public void selectivePantry() {
+        for (long id = 10; id < 110; id++) {
+            pantryIndex.index(recipe(id, "Water " + id, "water", "ice cubes"));
+        }
+
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocado", "salt"), PantryMatchMode.MOST,
+                PageRequest.of(0, 10));
+
+        assertEquals(Arrays.asList(2L, 1L, 3L), ids(page));
+        assertEquals(2, page.getContent().get(1).getMatchedIngredients());
+        assertEquals(2, page.getContent().get(1).getMissingIngredients());
+        assertEquals(Arrays.asList(2L), ids(pantryIndex.search(Arrays.asList("avocado", "bread"), PantryMatchMode.ALL,
+                PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void countBits() {
+        long[] words = {-1L, 0b1011L};
+
+        assertEquals(64, PantryIndex.countBits(words, 0, 64));
+        assertEquals(3, PantryIndex.countBits(words, 62, 65));
+        assertEquals(3, PantryIndex.countBits(words, 64, 70));
+        assertEquals(0, PantryIndex.countBits(words, 66, 67));
+        assertEquals(0, PantryIndex.countBits(words, 200, 210));
+    }
+
+    @Test
+    public void unknownItems() {
+        assertEquals(0, pantryIndex.search(Arrays.asList("saffron", " "), PantryMatchMode.MOST,
+                PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private List<Long> ids(Page<PantryMatch> page) {
+        return page.getContent().stream().map(PantryMatch::getId).collect(Collectors.toList());
+    }
+
+    private RecipeCommand recipe(Long id, String description, String... ingredients) {
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(id);
+        recipe.setDescription(description);
+        for (String ingredient : ingredients) {
+            IngredientCommand ingredientCommand = new IngredientCommand();
+            ingredientCommand.setDescription(ingredient);
+            recipe.getIngredients().add(ingredientCommand);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,173 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.CategoryCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+public class RecipeFacetIndexTest {
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    RecipeFacetIndex facetIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(categoryRepository.findAll()).thenReturn(Arrays.asList(category(1L, "Mexican"), category(2L, "American")));
+
+        facetIndex = new RecipeFacetIndex(recipeRepository, categoryRepository);
+        facetIndex.index(recipe(1L, Difficulty.EASY, 10, 0, 1L));
+        facetIndex.index(recipe(2L, Difficulty.MODERATE, 20, 9, 1L, 2L));
+        facetIndex.index(recipe(3L, Difficulty.EASY, 45, 90, 2L));
+    }
+
+    @Test
+    public void valuesOfAFacetAreOred() {
+        FacetFilter filter = new FacetFilter();
+        filter.getDifficulty().addAll(Arrays.asList(Difficulty.EASY, Difficulty.MODERATE));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), facetIndex.search(filter, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void facetsAreAnded() {
+        FacetFilter filter = new FacetFilter();
+        filter.getCategory().add(1L);
+        filter.getDifficulty().add(Difficulty.EASY);
+
+        Page<Long> page = facetIndex.search(filter, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(Collections.singletonList(1L), page.getContent());
+    }
+
+    @Test
+    public void timeRanges() {
+        FacetFilter filter = new FacetFilter();
+        filter.getPrep().add(TimeRange.UNDER_30);
+        filter.getCook().add(TimeRange.UNDER_15);
+
+        assertEquals(Collections.singletonList(2L), facetIndex.search(filter, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void pages() {
+        FacetFilter filter = new FacetFilter();
+        filter.getCategory().addAll(Arrays.asList(1L, 2L));
+
+        Page<Long> page = facetIndex.search(filter, PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(Collections.singletonList(3L), page.getContent());
+        assertTrue(facetIndex.search(filter, PageRequest.of(2, 2)).getContent().isEmpty());
+    }
+
+    @Test
+    public void countsIgnoreTheSelectionInTheirOwnFacet() {
+        FacetFilter filter = new FacetFilter();
+        filter.getDifficulty().add(Difficulty.EASY);
+
+        FacetCounts counts = facetIndex.count(filter);
+
+        assertEquals(Arrays.asList("American", "Mexican"), labels(counts.getCategories()));
+        assertEquals("easy recipes in American", 1, counts.getCategories().get(0).getCount());
+        assertEquals("easy recipes in Mexican", 1, counts.getCategories().get(1).getCount());
+
+        FacetValue<Difficulty> easy = counts.getDifficulties().get(0);
+        assertEquals("Easy", easy.getLabel());
+        assertTrue(easy.isSelected());
+        assertEquals(2, easy.getCount());
+        assertEquals("difficulties are counted as if picked as well", 1, counts.getDifficulties().get(1).getCount());
+        assertEquals(0, counts.getDifficulties().get(2).getCount());
+
+        assertEquals(1, counts.getCookTimes().get(0).getCount());
+        assertEquals(1, counts.getCookTimes().get(3).getCount());
+    }
+
+    @Test
+    public void reindexMovesTheRecipe() {
+        facetIndex.index(recipe(1L, Difficulty.HARDEST, null, null));
+
+        FacetCounts counts = facetIndex.count(new FacetFilter());
+
+        assertEquals(1, counts.getDifficulties().get(0).getCount());
+        assertEquals(1, counts.getDifficulties().get(2).getCount());
+        assertEquals("Mexican", counts.getCategories().get(1).getLabel());
+        assertEquals(1, counts.getCategories().get(1).getCount());
+        assertEquals(0, counts.getPrepTimes().get(0).getCount());
+    }
+
+    @Test
+    public void delete() {
+        facetIndex.delete(2L);
+
+        FacetFilter filter = new FacetFilter();
+        filter.getCategory().add(1L);
+
+        assertEquals(Collections.singletonList(1L), facetIndex.search(filter, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void rebuildReadsTheRepositories() {
+        when(recipeRepository.findIdsByCategoryId(1L)).thenReturn(Arrays.asList(5L, 7L));
+        when(recipeRepository.findIdsByCategoryId(2L)).thenReturn(Collections.singletonList(7L));
+        when(recipeRepository.findIdsByDifficulty(Difficulty.EASY)).thenReturn(Collections.singletonList(7L));
+        when(recipeRepository.findIdsByPrepTimeRange(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(recipeRepository.findIdsByCookTimeRange(anyInt(), anyInt())).thenReturn(Collections.emptyList());
+
+        facetIndex.rebuild();
+
+        FacetFilter filter = new FacetFilter();
+        filter.getCategory().add(1L);
+        assertEquals(Arrays.asList(5L, 7L), facetIndex.search(filter, PageRequest.of(0, 10)).getContent());
+        assertEquals(1, facetIndex.count(filter).getDifficulties().get(0).getCount());
+    }
+
+    private static List<String> labels(List<? extends FacetValue<?>> values) {
+        return values.stream().map(FacetValue::getLabel).collect(Collectors.toList());
+    }
+
+    private static Category category(Long id, String description) {
+        Category category = new Category();
+        category.setId(id);
+        category.setDescription(description);
+        return category;
+    }
+
+    private static RecipeCommand recipe(Long id, Difficulty difficulty, Integer prepTime, Integer cookTime,
+                                        Long... categoryIds) {
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(id);
+        recipe.setDifficulty(difficulty);
+        recipe.setPrepTime(prepTime);
+        recipe.setCookTime(cookTime);
+        for (Long categoryId : categoryIds) {
+            CategoryCommand category = new CategoryCommand();
+            category.setId(categoryId);
+            recipe.getCategories().add(category);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,128 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.domain.Difficulty;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.services.IngredientService;
+import guru.springframework.services.RecipeImportService;
+import guru.springframework.services.RecipeService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RecipeSearchIT {
+
+    @Autowired
+    RecipeSearchIndex recipeSearchIndex;
+
+    @Autowired
+    PantryIndex pantryIndex;
+
+    @Autowired
+    RecipeFacetIndex facetIndex;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    RecipeService recipeService;
+
+    @Autowired
+    IngredientService ingredientService;
+
+    @Autowired
+    RecipeImportService recipeImportService;
+
+    @Test
+    public void bootstrapRecipesAreIndexedOnStartup() {
+        Page<RecipeSearchHit> page = recipeSearchIndex.search("guacamole", PageRequest.of(0, 10));
+
+        assertEquals("Perfect Guacamole", page.getContent().get(0).getDescription());
+    }
+
+    @Test
+    public void pantryIsIndexedOnStartup() {
+        Page<PantryMatch> page = pantryIndex.search(Arrays.asList("avocados", "salt", "lime juice", "red onion",
+                "serrano chiles", "cilantro", "black pepper", "tomato"), PantryMatchMode.ALL, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("Perfect Guacamole", page.getContent().get(0).getDescription());
+        assertEquals(8, page.getContent().get(0).getMatchedIngredients());
+    }
+
+    @Test
+    public void facetsAreBuiltOnStartup() {
+        Long guacamoleId = recipeSearchIndex.search("guacamole", PageRequest.of(0, 10)).getContent().get(0).getId();
+
+        FacetFilter filter = new FacetFilter();
+        filter.getCategory().add(categoryRepository.findByDescription("Mexican").get().getId());
+        filter.getDifficulty().add(Difficulty.EASY);
+        filter.getPrep().add(TimeRange.UNDER_15);
+
+        assertTrue(facetIndex.search(filter, PageRequest.of(0, 100)).getContent().contains(guacamoleId));
+    }
+
+    @Test
+    public void writesAreIndexedOnCommit() {
+        FacetFilter hardest = new FacetFilter();
+        hardest.getDifficulty().add(Difficulty.HARDEST);
+
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription("Shakshuka");
+        command.setDifficulty(Difficulty.HARDEST);
+        command.setDirections("Poach the eggs in the tomato sauce");
+        Long id = recipeService.saveRecipeCommand(command).getId();
+        try {
+            assertEquals(id, recipeSearchIndex.search("shakshuka", PageRequest.of(0, 10)).getContent().get(0).getId());
+            assertTrue(facetIndex.search(hardest, PageRequest.of(0, 100)).getContent().contains(id));
+
+            UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+            uom.setId(1L);
+            IngredientCommand ingredient = new IngredientCommand();
+            ingredient.setRecipeId(id);
+            ingredient.setDescription("harissa");
+            ingredient.setAmount(BigDecimal.ONE);
+            ingredient.setUnitOfMeasure(uom);
+            ingredientService.saveIngredientCommand(ingredient);
+
+            assertEquals(id, recipeSearchIndex.search("harissa", PageRequest.of(0, 10)).getContent().get(0).getId());
+            assertEquals(id, pantryIndex.search(Collections.singletonList("harissa"), PantryMatchMode.ALL,
+                    PageRequest.of(0, 10)).getContent().get(0).getId());
+        } finally {
+            recipeService.deleteById(id);
+        }
+
+        assertTrue(recipeSearchIndex.search("shakshuka", PageRequest.of(0, 10)).getContent().isEmpty());
+        assertFalse(facetIndex.search(hardest, PageRequest.of(0, 100)).getContent().contains(id));
+    }
+
+    @Test
+    public void importedRecipesAreIndexed() {
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription("Bibimbap");
+        recipeImportService.importRecipes(Collections.singletonList(command).iterator());
+
+        Page<RecipeSearchHit> page = recipeSearchIndex.search("bibimbap", PageRequest.of(0, 10));
+        try {
+            assertEquals(1, page.getTotalElements());
+        } finally {
+            page.forEach(hit -> recipeService.deleteById(hit.getId()));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package guru.springframework.search;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.NotesCommand;
+import guru.springframework.commands.RecipeCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.Assert.*;
+
+public class RecipeSearchIndexTest {
+
+    RecipeSearchIndex searchIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        searchIndex = new RecipeSearchIndex();
+        searchIndex.index(recipe(1L, "Spicy Grilled Chicken Tacos", "Grill the chicken", "ancho chili powder", null));
+        searchIndex.index(recipe(2L, "Perfect Guacamole", "Mash the avocados with a fork", "ripe avocados",
+                "Serve with tortilla chips"));
+        searchIndex.index(recipe(3L, "Avocado Toast", "Toast the bread", "sourdough", null));
+        searchIndex.refresh();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    @Test
+    public void descriptionRanksAboveOtherFields() {
+        Page<RecipeSearchHit> page = searchIndex.search("avocado", PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(Long.valueOf(3L), page.getContent().get(0).getId());
+        assertEquals("Avocado Toast", page.getContent().get(0).getDescription());
+        assertEquals(Long.valueOf(2L), page.getContent().get(1).getId());
+        assertTrue(page.getContent().get(0).getScore() > page.getContent().get(1).getScore());
+    }
+
+    @Test
+    public void searchesIngredientsAndNotes() {
+        assertEquals(Long.valueOf(1L), searchIndex.search("chili", PageRequest.of(0, 10)).getContent().get(0).getId());
+        assertEquals(Long.valueOf(2L), searchIndex.search("chips", PageRequest.of(0, 10)).getContent().get(0).getId());
+    }
+
+    @Test
+    public void stemsAndIgnoresCase() {
+        assertEquals(Long.valueOf(1L), searchIndex.search("TACO grilling", PageRequest.of(0, 10)).getContent().get(0).getId());
+    }
+
+    @Test
+    public void pages() {
+        Page<RecipeSearchHit> page = searchIndex.search("avocado", PageRequest.of(1, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(1, page.getContent().size());
+        assertEquals(Long.valueOf(2L), page.getContent().get(0).getId());
+        assertTrue(searchIndex.search("avocado", PageRequest.of(2, 1)).getContent().isEmpty());
+    }
+
+    @Test
+    public void pagesFarPastTheEnd() {
+        Page<RecipeSearchHit> page = searchIndex.search("avocado", PageRequest.of(Integer.MAX_VALUE, 20));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(2, page.getTotalElements());
+        assertTrue(searchIndex.search("avocado", PageRequest.of(1000, Integer.MAX_VALUE)).getContent().isEmpty());
+    }
+
+    @Test
+    public void updateReplacesTheRecipe() {
+        searchIndex.index(recipe(3L, "Sourdough Toast", "Toast the bread", "sourdough", null));
+        searchIndex.refresh();
+
+        assertEquals(1, searchIndex.search("avocado", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, searchIndex.search("sourdough", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void delete() {
+        searchIndex.delete(2L);
+
+        assertEquals("not visible before the refresh", 2,
+                searchIndex.search("avocado", PageRequest.of(0, 10)).getTotalElements());
+        searchIndex.refresh();
+        assertEquals(1, searchIndex.search("avocado", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void blankQuery() {
+        assertEquals(0, searchIndex.search(" ", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private RecipeCommand recipe(Long id, String description, String directions, String ingredient, String notes) {
+        IngredientCommand ingredientCommand = new IngredientCommand();
+        ingredientCommand.setDescription(ingredient);
+
+        RecipeCommand recipe = new RecipeCommand();
+        recipe.setId(id);
+        recipe.setDescription(description);
+        recipe.setDirections(directions);
+        recipe.getIngredients().add(ingredientCommand);
+        if (notes != null) {
+            NotesCommand notesCommand = new NotesCommand();
+            notesCommand.setRecipeNotes(notes);
+            recipe.setNotes(notesCommand);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,73 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.CategoryCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.config.CachingConfig;
+import guru.springframework.domain.Category;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CategoryServiceIT {
+
+    @Autowired
+    CategoryService categoryService;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    RecipeService recipeService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Cache cache;
+
+    Category italian;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = cacheManager.getCache(CachingConfig.CATEGORY_RECIPE_COUNTS);
+        cache.clear();
+        italian = categoryRepository.findByDescription("Italian").get();
+    }
+
+    @Test
+    public void recipeCountIsCachedUntilARecipeChanges() {
+        long count = recipeRepository.countByCategoryId(italian.getId());
+        assertEquals(count, cache.get(italian.getId()).get());
+
+        CategoryCommand category = new CategoryCommand();
+        category.setId(italian.getId());
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription("Risotto");
+        command.getCategories().add(category);
+        Long id = recipeService.saveRecipeCommand(command).getId();
+        try {
+            assertNull(cache.get(italian.getId()));
+            assertEquals(count + 1, recipeRepository.countByCategoryId(italian.getId()));
+            assertTrue(categoryService.getRecipeSummaries(italian.getId(), PageRequest.of(0, 100)).stream()
+                    .anyMatch(summary -> summary.getId().equals(id)));
+        } finally {
+            recipeService.deleteById(id);
+        }
+
+        assertEquals(count, recipeRepository.countByCategoryId(italian.getId()));
+    }
+}
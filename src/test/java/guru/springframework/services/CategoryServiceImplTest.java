@@ -0,0 +1,78 @@
+package guru.springframework.services;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.RecipeSummary;
+import guru.springframework.repositories.CategoryRepository;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class CategoryServiceImplTest {
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    CategoryServiceImpl categoryService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        categoryService = new CategoryServiceImpl(categoryRepository, recipeRepository);
+    }
+
+    @Test
+    public void findById() {
+        Category category = new Category();
+        when(categoryRepository.findById(3L)).thenReturn(Optional.of(category));
+
+        assertSame(category, categoryService.findById(3L));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void findByIdNotFound() {
+        when(categoryRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        categoryService.findById(3L);
+    }
+
+    @Test
+    public void fullPageReadsTheCount() {
+        PageRequest pageable = PageRequest.of(1, 2);
+        when(recipeRepository.findSummariesByCategoryId(3L, pageable))
+                .thenReturn(Arrays.asList(mock(RecipeSummary.class), mock(RecipeSummary.class)));
+        when(recipeRepository.countByCategoryId(3L)).thenReturn(7L);
+
+        Page<RecipeSummary> page = categoryService.getRecipeSummaries(3L, pageable);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(7, page.getTotalElements());
+        assertEquals(4, page.getTotalPages());
+    }
+
+    @Test
+    public void shortFirstPageSkipsTheCount() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(recipeRepository.findSummariesByCategoryId(3L, pageable))
+                .thenReturn(Collections.singletonList(mock(RecipeSummary.class)));
+
+        Page<RecipeSummary> page = categoryService.getRecipeSummaries(3L, pageable);
+
+        assertEquals(1, page.getTotalElements());
+        verify(recipeRepository, never()).countByCategoryId(anyLong());
+    }
+}
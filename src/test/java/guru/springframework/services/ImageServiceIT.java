@@ -0,0 +1,62 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.storage.ImageStore;
+import guru.springframework.storage.ThumbnailGenerator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ImageServiceIT {
+
+    @Autowired
+    ImageService imageService;
+
+    @Autowired
+    RecipeService recipeService;
+
+    @Autowired
+    ImageStore imageStore;
+
+    @Test
+    public void deletingTheRecipeEmptiesTheStore() throws Exception {
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription("Pancakes");
+        Long recipeId = recipeService.saveRecipeCommand(command).getId();
+
+        imageService.saveImageFile(recipeId, new MockMultipartFile("imagefile", "pancakes.png", "image/png", png()));
+        String key = imageService.findImageMetadata(recipeId).getStorageKey();
+        String thumbnailKey = ThumbnailGenerator.thumbnailKey(key, 100);
+        // thumbnails are created in the background after the upload committed
+        for (int i = 0; i < 100 && imageStore.load(thumbnailKey) == null; i++) {
+            Thread.sleep(50);
+        }
+        assertNotNull(imageStore.load(key));
+        assertNotNull(imageStore.load(thumbnailKey));
+
+        recipeService.deleteById(recipeId);
+
+        assertNull(imageService.findImageMetadata(recipeId));
+        assertNull(imageStore.load(key));
+        assertNull(imageStore.load(thumbnailKey));
+        assertNull(imageStore.load(ThumbnailGenerator.thumbnailKey(key, 400)));
+    }
+
+    private static byte[] png() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -1,34 +1,48 @@
 package guru.springframework.services;
 
+import guru.springframework.domain.ImageMetadata;
 import guru.springframework.domain.Recipe;
 import guru.springframework.repositories.RecipeRepository;
+import guru.springframework.storage.ImageStore;
+import guru.springframework.storage.ImageUploadedEvent;
+import guru.springframework.storage.ThumbnailGenerator;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.Optional;
 
-import static org.junit.Assert.assertEquals;
-import static org.mockito.Mockito.*;
-
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 public class ImageServiceImplTest {
 
     @Mock
     RecipeRepository recipeRepository;
 
+    @Mock
+    ImageStore imageStore;
+
+    @Mock
+    ThumbnailGenerator thumbnailGenerator;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     ImageService imageService;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        imageService = new ImageServiceImpl(recipeRepository);
+        imageService = new ImageServiceImpl(recipeRepository, imageStore, thumbnailGenerator, eventPublisher);
     }
 
     @Test
@@ -44,6 +58,7 @@ public class ImageServiceImplTest {
         Optional<Recipe> recipeOptional = Optional.of(recipe);
 
         when(recipeRepository.findById(anyLong())).thenReturn(recipeOptional);
+        when(imageStore.store(anyString(), any(InputStream.class), anyLong())).thenReturn(multipartFile.getSize());
 
         ArgumentCaptor<Recipe> argumentCaptor = ArgumentCaptor.forClass(Recipe.class);
 
@@ -51,8 +66,106 @@ public class ImageServiceImplTest {
         imageService.saveImageFile(id, multipartFile);
 
         //then
+        verify(imageStore, times(1)).store(startsWith("1/"), any(InputStream.class), eq(multipartFile.getSize()));
         verify(recipeRepository, times(1)).save(argumentCaptor.capture());
-        Recipe savedRecipe = argumentCaptor.getValue();
-        assertEquals(multipartFile.getBytes().length, savedRecipe.getImage().length);
+        ImageMetadata savedImage = argumentCaptor.getValue().getImage();
+        assertEquals(Long.valueOf(multipartFile.getSize()), savedImage.getContentLength());
+        assertEquals("text/plain", savedImage.getContentType());
+        assertNotNull(savedImage.getLastModified());
+        verify(eventPublisher, times(1)).publishEvent(any(ImageUploadedEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    @Test
+    public void saveImageFileReplacesPreviousImage() throws Exception {
+        //given
+        ImageMetadata previous = new ImageMetadata();
+        previous.setStorageKey("1/old");
+
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setImage(previous);
+
+        when(recipeRepository.findById(anyLong())).thenReturn(Optional.of(recipe));
+
+        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+
+        //when
+        imageService.saveImageFile(1L, new MockMultipartFile("imagefile", "new".getBytes()));
+
+        //then
+        verify(imageStore, never()).delete(anyString());
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        ImageUploadedEvent event = (ImageUploadedEvent) eventCaptor.getAllValues().get(0);
+        assertEquals("1/old", event.getPreviousStorageKey());
+        assertEquals(recipe.getImage().getStorageKey(), event.getStorageKey());
+        assertNotEquals("1/old", recipe.getImage().getStorageKey());
+    }
+
+    @Test
+    public void previousImageIsDeletedAfterCommit() throws Exception {
+        //when
+        ((ImageServiceImpl) imageService).onImageCommitted(new ImageUploadedEvent(1L, "1/new", "1/old"));
+
+        //then
+        verify(imageStore, times(1)).delete("1/old");
+        verify(thumbnailGenerator, times(1)).deleteThumbnails("1/old");
+        verify(imageStore, never()).delete("1/new");
+    }
+
+    @Test
+    public void newImageIsDeletedAfterRollback() throws Exception {
+        //when
+        ((ImageServiceImpl) imageService).onImageRolledBack(new ImageUploadedEvent(1L, "1/new", "1/old"));
+
+        //then
+        verify(imageStore, times(1)).delete("1/new");
+        verify(thumbnailGenerator, times(1)).deleteThumbnails("1/new");
+        verify(imageStore, never()).delete("1/old");
+    }
+
+    @Test
+    public void imageIsDeletedWithItsRecipe() throws Exception {
+        //when
+        ((ImageServiceImpl) imageService).onRecipeDeleted(new RecipeDeletedEvent(1L, "1/image"));
+        ((ImageServiceImpl) imageService).onRecipeDeleted(new RecipeDeletedEvent(2L, null));
+
+        //then
+        verify(imageStore, times(1)).delete("1/image");
+        verify(thumbnailGenerator, times(1)).deleteThumbnails("1/image");
+        verifyNoMoreInteractions(imageStore);
+    }
+
+    @Test
+    public void findImageMetadata() {
+        //given
+        ImageMetadata image = new ImageMetadata();
+        image.setStorageKey("1/image");
+
+        when(recipeRepository.findImageByRecipeId(anyLong())).thenReturn(Optional.of(image));
+
+        //when
+        ImageMetadata found = imageService.findImageMetadata(1L);
+
+        //then
+        assertEquals("1/image", found.getStorageKey());
+        verify(recipeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void loadThumbnail() throws Exception {
+        //given
+        ImageMetadata image = new ImageMetadata();
+        image.setStorageKey("1/image");
+
+        when(thumbnailGenerator.supportsSize(100)).thenReturn(true);
+
+        //when
+        imageService.loadThumbnail(image, 100);
+        imageService.loadThumbnail(image, 123);
+
+        //then
+        verify(imageStore, times(1)).load("1/image-100");
+        verify(imageStore, never()).load("1/image-123");
     }
 }
@@ -1,12 +1,14 @@
 package guru.springframework.services;
 
 import guru.springframework.commands.IngredientCommand;
-import guru.springframework.converters.IngredientCommandToIngredient;
+import guru.springframework.commands.UnitOfMeasureCommand;
 import guru.springframework.converters.IngredientToIngredientCommand;
-import guru.springframework.converters.UnitOfMeasureCommandToUnitOfMeasure;
-import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommand;
+import guru.springframework.converters.IngredientToIngredientCommandImpl;
+import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommandImpl;
 import guru.springframework.domain.Ingredient;
 import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import guru.springframework.exceptions.NotFoundException;
 import guru.springframework.repositories.IngredientRepository;
 import guru.springframework.repositories.RecipeRepository;
 import guru.springframework.repositories.UnitOfMeasureRepository;
@@ -17,7 +19,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.Collections;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -27,7 +34,6 @@ import static org.mockito.Mockito.*;
 public class IngredientServiceImplTest {
 
     private final IngredientToIngredientCommand ingredientToIngredientCommand;
-    private final IngredientCommandToIngredient ingredientCommandToIngredient;
 
     @Mock
     RecipeRepository recipeRepository;
@@ -38,19 +44,21 @@ public class IngredientServiceImplTest {
     @Mock
     IngredientRepository ingredientRepository;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     IngredientService ingredientService;
 
     //init converters
     public IngredientServiceImplTest() {
-        this.ingredientToIngredientCommand = new IngredientToIngredientCommand(new UnitOfMeasureToUnitOfMeasureCommand());
-        this.ingredientCommandToIngredient = new IngredientCommandToIngredient(new UnitOfMeasureCommandToUnitOfMeasure());
+        this.ingredientToIngredientCommand = new IngredientToIngredientCommandImpl(new UnitOfMeasureToUnitOfMeasureCommandImpl());
     }
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        ingredientService = new IngredientServiceImpl(ingredientToIngredientCommand, ingredientCommandToIngredient,
-                recipeRepository, unitOfMeasureRepository, ingredientRepository);
+        ingredientService = new IngredientServiceImpl(ingredientToIngredientCommand, recipeRepository,
+                unitOfMeasureRepository, ingredientRepository, eventPublisher);
     }
 
     @Test
@@ -59,48 +67,146 @@ public class IngredientServiceImplTest {
         Recipe recipe = new Recipe();
         recipe.setId(1L);
 
-        Ingredient ingredient1 = new Ingredient();
-        ingredient1.setId(1L);
-
-        Ingredient ingredient2 = new Ingredient();
-        ingredient2.setId(2L);
-
-        recipe.addIngredient(ingredient1);
-        recipe.addIngredient(ingredient2);
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(2L);
+        recipe.addIngredient(ingredient);
 
         //when
-        when(recipeRepository.findById(anyLong())).thenReturn(java.util.Optional.of(recipe));
+        when(ingredientRepository.findByIdAndRecipeId(2L, 1L)).thenReturn(Optional.of(ingredient));
         IngredientCommand ingredientCommand = ingredientService.findByRecipeIdAndIngredientId(1L, 2L);
 
         //then
         assertEquals(java.util.Optional.of(2L).get(), ingredientCommand.getId());
         assertEquals(java.util.Optional.of(1L).get(), ingredientCommand.getRecipeId());
-        verify(recipeRepository, times(1)).findById(anyLong());
+        verify(ingredientRepository, times(1)).findByIdAndRecipeId(anyLong(), anyLong());
+        verify(recipeRepository, never()).findById(anyLong());
     }
 
     @Test
-    public void deleteIngredientById(){
+    public void findByRecipeId() {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(2L);
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        when(ingredientRepository.findByRecipeId(1L, pageable))
+                .thenReturn(new PageImpl<>(Collections.singletonList(ingredient), pageable, 1));
+
+        Page<IngredientCommand> page = ingredientService.findByRecipeId(1L, pageable);
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(Long.valueOf(2L), page.getContent().get(0).getId());
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void findByRecipeIdOfUnknownRecipe() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(ingredientRepository.findByRecipeId(1L, pageable)).thenReturn(new PageImpl<>(Collections.emptyList()));
+        when(recipeRepository.existsById(1L)).thenReturn(false);
+
+        ingredientService.findByRecipeId(1L, pageable);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void findByRecipeIdAndIngredientIdNotFound() {
+        when(ingredientRepository.findByIdAndRecipeId(anyLong(), anyLong())).thenReturn(Optional.empty());
+
+        ingredientService.findByRecipeIdAndIngredientId(1L, 2L);
+    }
+
+    @Test
+    public void saveNewIngredientCommand() {
+        //given
+        IngredientCommand command = ingredientCommand(null);
+
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+        when(unitOfMeasureRepository.findById(4L)).thenReturn(Optional.of(unitOfMeasure()));
+        when(ingredientRepository.save(any(Ingredient.class))).thenAnswer(invocation -> {
+            Ingredient ingredient = invocation.getArgument(0);
+            ingredient.setId(3L);
+            return ingredient;
+        });
+
+        //when
+        IngredientCommand savedCommand = ingredientService.saveIngredientCommand(command);
+
+        //then
+        assertEquals(Long.valueOf(3L), savedCommand.getId());
+        assertEquals(Long.valueOf(1L), savedCommand.getRecipeId());
+        assertEquals("Salt", savedCommand.getDescription());
+        verify(ingredientRepository, times(1)).save(any(Ingredient.class));
+        verify(recipeRepository, never()).save(any(Recipe.class));
+    }
+
+    @Test
+    public void saveExistingIngredientCommand() {
         //given
+        IngredientCommand command = ingredientCommand(3L);
+
         Recipe recipe = new Recipe();
         recipe.setId(1L);
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(3L);
+        ingredient.setRecipe(recipe);
+
+        when(ingredientRepository.findByIdAndRecipeId(3L, 1L)).thenReturn(Optional.of(ingredient));
+        when(unitOfMeasureRepository.findById(4L)).thenReturn(Optional.of(unitOfMeasure()));
+        when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
+
+        //when
+        IngredientCommand savedCommand = ingredientService.saveIngredientCommand(command);
 
-        Ingredient ingredient1 = new Ingredient();
-        ingredient1.setId(1L);
+        //then
+        assertEquals(Long.valueOf(3L), savedCommand.getId());
+        assertEquals("Salt", ingredient.getDescription());
+        assertEquals(Long.valueOf(4L), ingredient.getUom().getId());
+        verify(eventPublisher, times(1)).publishEvent(any(RecipeChangedEvent.class));
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(recipeRepository, never()).save(any(Recipe.class));
+        assertNotNull("recipe version is bumped", recipe.getLastModified());
+    }
 
-        Ingredient ingredient2 = new Ingredient();
-        ingredient2.setId(2L);
+    @Test(expected = RuntimeException.class)
+    public void saveIngredientCommandRecipeNotFound() {
+        when(recipeRepository.findById(anyLong())).thenReturn(Optional.empty());
 
-        recipe.addIngredient(ingredient1);
-        recipe.addIngredient(ingredient2);
+        ingredientService.saveIngredientCommand(ingredientCommand(null));
+    }
+
+    @Test
+    public void deleteIngredientById(){
+        //given
+        Recipe recipe = new Recipe();
+        when(ingredientRepository.deleteByIdAndRecipeId(anyLong(), anyLong())).thenReturn(1);
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
 
         //when
-        when(recipeRepository.findById(anyLong())).thenReturn(Optional.of(recipe));
         ingredientService.deleteById(1L, 2L);
 
         //then
-        verify(recipeRepository, times(1)).findById(anyLong());
-        verify(recipeRepository, times(1)).save(any(Recipe.class));
+        verify(ingredientRepository, times(1)).deleteByIdAndRecipeId(2L, 1L);
+        verify(eventPublisher, times(1)).publishEvent(any(RecipeChangedEvent.class));
+        verify(recipeRepository, never()).save(any(Recipe.class));
+        assertNotNull("recipe version is bumped", recipe.getLastModified());
+    }
 
+    private IngredientCommand ingredientCommand(Long id) {
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(4L);
+
+        IngredientCommand command = new IngredientCommand();
+        command.setId(id);
+        command.setRecipeId(1L);
+        command.setDescription("Salt");
+        command.setUnitOfMeasure(uom);
+        return command;
     }
 
-}
\ No newline at end of file
+    private UnitOfMeasure unitOfMeasure() {
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setId(4L);
+        return uom;
+    }
+}
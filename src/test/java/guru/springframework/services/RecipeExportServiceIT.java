@@ -0,0 +1,80 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RecipeExportServiceIT {
+
+    private static final String PREFIX = "Exported ";
+
+    @Autowired
+    RecipeExportService recipeExportService;
+
+    @Autowired
+    RecipeImportService recipeImportService;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @After
+    public void tearDown() throws Exception {
+        recipeRepository.deleteAll(StreamSupport.stream(recipeRepository.findAll().spliterator(), false)
+                .filter(recipe -> recipe.getDescription() != null && recipe.getDescription().startsWith(PREFIX))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void exportRecipes() throws Exception {
+        recipeImportService.importRecipes(IntStream.range(0, 250).mapToObj(this::recipeCommand).iterator());
+
+        List<RecipeCommand> exported = new ArrayList<>();
+        recipeExportService.exportRecipes(exported::add);
+
+        assertEquals(recipeRepository.count(), exported.size());
+        // the fetch joined rows are folded back into one recipe each, also across the clears
+        assertEquals(exported.size(), exported.stream().map(RecipeCommand::getId).distinct().count());
+        List<RecipeCommand> imported = exported.stream()
+                .filter(recipe -> recipe.getDescription().startsWith(PREFIX)).collect(Collectors.toList());
+        assertEquals(250, imported.size());
+        assertTrue(imported.stream().allMatch(recipe -> recipe.getIngredients().size() == 3));
+        for (int i = 1; i < exported.size(); i++) {
+            assertTrue(exported.get(i).getId() > exported.get(i - 1).getId());
+        }
+    }
+
+    private RecipeCommand recipeCommand(int i) {
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(1L);
+
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription(PREFIX + i);
+        for (String description : new String[]{"salt", "pepper", "oil"}) {
+            IngredientCommand ingredient = new IngredientCommand();
+            ingredient.setDescription(description);
+            ingredient.setAmount(BigDecimal.ONE);
+            ingredient.setUnitOfMeasure(uom);
+            command.getIngredients().add(ingredient);
+        }
+        return command;
+    }
+}
@@ -0,0 +1,73 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.converters.CategoryToCategoryCommandImpl;
+import guru.springframework.converters.IngredientToIngredientCommandImpl;
+import guru.springframework.converters.NotesToNotesCommandImpl;
+import guru.springframework.converters.RecipeToRecipeCommandImpl;
+import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommandImpl;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeExportServiceImplTest {
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    Session session;
+
+    RecipeExportService recipeExportService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        recipeExportService = new RecipeExportServiceImpl(recipeRepository, new RecipeToRecipeCommandImpl(
+                new CategoryToCategoryCommandImpl(),
+                new IngredientToIngredientCommandImpl(new UnitOfMeasureToUnitOfMeasureCommandImpl()),
+                new NotesToNotesCommandImpl()), entityManager);
+    }
+
+    @Test
+    public void exportRecipes() {
+        //given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(recipeRepository.streamAllOrderById()).thenReturn(LongStream.rangeClosed(1, 250).mapToObj(id -> {
+            Recipe recipe = new Recipe();
+            recipe.setId(id);
+            return recipe;
+        }).onClose(() -> closed.set(true)));
+
+        //when
+        List<RecipeCommand> exported = new ArrayList<>();
+        recipeExportService.exportRecipes(exported::add);
+
+        //then
+        assertEquals(250, exported.size());
+        assertEquals(Long.valueOf(250L), exported.get(249).getId());
+        assertTrue("cursor is closed", closed.get());
+        verify(entityManager, times(2)).clear();
+        verify(session).setCacheMode(CacheMode.IGNORE);
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+}
@@ -0,0 +1,107 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.NotesCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RecipeImportServiceIT {
+
+    private static final String PREFIX = "Imported ";
+    private static final int RECIPES = 1100;
+
+    @Autowired
+    RecipeImportService recipeImportService;
+
+    @Autowired
+    RecipeRepository recipeRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @After
+    public void tearDown() throws Exception {
+        recipeRepository.deleteAll(importedRecipes());
+    }
+
+    @Test
+    public void importRecipes() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<RecipeCommand> commands = IntStream.range(0, RECIPES).mapToObj(this::recipeCommand)
+                .collect(Collectors.toList());
+        RecipeImportReport report = recipeImportService.importRecipes(commands.iterator());
+
+        assertEquals(RECIPES, report.getImported());
+        assertEquals(3, report.getChunks());
+        // 4400 rows but only a handful of statements, the inserts of each chunk go out in batches
+        assertTrue("prepared " + statistics.getPrepareStatementCount(),
+                statistics.getPrepareStatementCount() < RECIPES / 4);
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            List<Recipe> recipes = importedRecipes();
+            assertEquals(RECIPES, recipes.size());
+            Recipe recipe = recipes.get(0);
+            assertEquals(2, recipe.getIngredients().size());
+            assertEquals("notes", recipe.getNote().getRecipeNotes());
+            assertEquals(Long.valueOf(0L), recipe.getVersion());
+            return null;
+        });
+    }
+
+    private List<Recipe> importedRecipes() {
+        return StreamSupport.stream(recipeRepository.findAll().spliterator(), false)
+                .filter(recipe -> recipe.getDescription() != null && recipe.getDescription().startsWith(PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    private RecipeCommand recipeCommand(int i) {
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(1L);
+
+        RecipeCommand command = new RecipeCommand();
+        command.setId(99L);
+        command.setDescription(PREFIX + i);
+        command.setServings(4);
+        for (String description : new String[]{"salt", "pepper"}) {
+            IngredientCommand ingredient = new IngredientCommand();
+            ingredient.setDescription(description);
+            ingredient.setAmount(BigDecimal.ONE);
+            ingredient.setUnitOfMeasure(uom);
+            command.getIngredients().add(ingredient);
+        }
+        NotesCommand notes = new NotesCommand();
+        notes.setRecipeNotes("notes");
+        command.setNotes(notes);
+        return command;
+    }
+}
@@ -0,0 +1,111 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.IngredientCommand;
+import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.RecipeImportReport;
+import guru.springframework.converters.CategoryCommandToCategoryImpl;
+import guru.springframework.converters.IngredientCommandToIngredientImpl;
+import guru.springframework.converters.NotesCommandToNotesImpl;
+import guru.springframework.converters.RecipeCommandToRecipe;
+import guru.springframework.converters.RecipeCommandToRecipeImpl;
+import guru.springframework.converters.UnitOfMeasureCommandToUnitOfMeasureImpl;
+import guru.springframework.domain.Recipe;
+import guru.springframework.repositories.RecipeRepository;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeImportServiceImplTest {
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    Session session;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    RecipeImportService recipeImportService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        RecipeCommandToRecipe converter = new RecipeCommandToRecipeImpl(new CategoryCommandToCategoryImpl(),
+                new IngredientCommandToIngredientImpl(new UnitOfMeasureCommandToUnitOfMeasureImpl()),
+                new NotesCommandToNotesImpl());
+        recipeImportService = new RecipeImportServiceImpl(recipeRepository, converter, entityManager,
+                transactionManager, eventPublisher, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importRecipesInChunks() {
+        //given
+        List<List<Recipe>> chunks = new ArrayList<>();
+        when(recipeRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            chunks.add(new ArrayList<>(invocation.<List<Recipe>>getArgument(0)));
+            return invocation.getArgument(0);
+        });
+
+        //when
+        RecipeImportReport report = recipeImportService.importRecipes(
+                Arrays.asList(recipeCommand(), recipeCommand(), recipeCommand()).iterator());
+
+        //then
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getChunks());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(1, chunks.get(1).size());
+        verify(transactionManager, times(2)).commit(any());
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(2)).publishEvent(any(RecipesImportedEvent.class));
+
+        Recipe recipe = chunks.get(0).get(0);
+        assertNull("imported as a new recipe", recipe.getId());
+        assertNull(recipe.getVersion());
+        assertNotNull(recipe.getLastModified());
+        assertSame(recipe, recipe.getIngredients().iterator().next().getRecipe());
+        assertNull(recipe.getIngredients().iterator().next().getId());
+    }
+
+    @Test
+    public void importNothing() {
+        RecipeImportReport report = recipeImportService.importRecipes(new ArrayList<RecipeCommand>().iterator());
+
+        assertEquals(0, report.getImported());
+        verifyZeroInteractions(recipeRepository, transactionManager);
+    }
+
+    private RecipeCommand recipeCommand() {
+        IngredientCommand ingredient = new IngredientCommand();
+        ingredient.setId(7L);
+        ingredient.setDescription("salt");
+
+        RecipeCommand command = new RecipeCommand();
+        command.setId(5L);
+        command.setVersion(3L);
+        command.setDescription("Tacos");
+        command.getIngredients().add(ingredient);
+        return command;
+    }
+}
@@ -0,0 +1,126 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.ScaledIngredient;
+import guru.springframework.commands.ScaledRecipe;
+import guru.springframework.domain.Ingredient;
+import guru.springframework.domain.Recipe;
+import guru.springframework.domain.UnitOfMeasure;
+import guru.springframework.repositories.RecipeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeScalingServiceImplTest {
+
+    @Mock
+    RecipeRepository recipeRepository;
+
+    RecipeScalingServiceImpl recipeScalingService;
+
+    Recipe recipe;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        recipeScalingService = new RecipeScalingServiceImpl(recipeRepository, new ConcurrentMapCacheManager());
+
+        UnitOfMeasure cup = new UnitOfMeasure();
+        cup.setDescription("Cup");
+        recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setDescription("Tacos");
+        recipe.setServings(4);
+        recipe.addIngredient(ingredient(2L, "flour", "1.5", cup));
+        recipe.addIngredient(ingredient(3L, "eggs", "3", null));
+        recipe.addIngredient(ingredient(4L, "salt", null, null));
+
+        when(recipeRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(recipeRepository.findDetailedById(1L)).thenReturn(Optional.of(recipe));
+    }
+
+    @Test
+    public void scales() {
+        ScaledRecipe scaled = recipeScalingService.scale(1L, 6);
+
+        assertEquals(Integer.valueOf(4), scaled.getOriginalServings());
+        assertEquals(Integer.valueOf(6), scaled.getServings());
+        ScaledIngredient flour = scaled.getIngredients().get(0);
+        assertEquals("flour", flour.getDescription());
+        assertEquals("Cup", flour.getUnitOfMeasure());
+        assertEquals(new BigDecimal("2.25"), flour.getAmount());
+        assertEquals("uneven, rounded to two decimals", new BigDecimal("4.50"), scaled.getIngredients().get(1).getAmount());
+        assertNull(scaled.getIngredients().get(2).getAmount());
+    }
+
+    @Test
+    public void roundsWhatDoesNotDivideEvenly() {
+        recipe.setServings(3);
+
+        ScaledRecipe scaled = recipeScalingService.scale(1L, 2);
+
+        assertEquals("even, keeps the scale", new BigDecimal("1.0"), scaled.getIngredients().get(0).getAmount());
+        assertEquals(new BigDecimal("2"), scaled.getIngredients().get(1).getAmount());
+
+        recipe.setServings(7);
+        when(recipeRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+        assertEquals(new BigDecimal("0.43"), recipeScalingService.scale(1L, 1).getIngredients().get(1).getAmount());
+    }
+
+    @Test
+    public void scalesAmountsBeyondLongArithmetic() {
+        recipe.getIngredients().clear();
+        recipe.addIngredient(ingredient(2L, "rice", "12345678901234567890.5", null));
+
+        assertEquals(new BigDecimal("24691357802469135781.0"),
+                recipeScalingService.scale(1L, 8).getIngredients().get(0).getAmount());
+    }
+
+    @Test
+    public void servingsAreClamped() {
+        assertEquals(Integer.valueOf(1), recipeScalingService.scale(1L, 0).getServings());
+        assertEquals(Integer.valueOf(RecipeScalingServiceImpl.MAX_SERVINGS),
+                recipeScalingService.scale(1L, Integer.MAX_VALUE).getServings());
+    }
+
+    @Test
+    public void recipeWithoutServingsIsNotScaled() {
+        recipe.setServings(null);
+
+        ScaledRecipe scaled = recipeScalingService.scale(1L, 8);
+
+        assertNull(scaled.getServings());
+        assertEquals(new BigDecimal("1.5"), scaled.getIngredients().get(0).getAmount());
+    }
+
+    @Test
+    public void planIsBuiltOncePerVersion() {
+        recipeScalingService.scale(1L, 2);
+        recipeScalingService.scale(1L, 8);
+        verify(recipeRepository, times(1)).findDetailedById(1L);
+
+        when(recipeRepository.findVersionById(1L)).thenReturn(Optional.of(1L));
+        recipeScalingService.scale(1L, 8);
+        verify(recipeRepository, times(2)).findDetailedById(1L);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void recipeNotFound() {
+        when(recipeRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        recipeScalingService.scale(1L, 2);
+    }
+
+    private static Ingredient ingredient(Long id, String description, String amount, UnitOfMeasure uom) {
+        Ingredient ingredient = new Ingredient(description, amount != null ? new BigDecimal(amount) : null, uom);
+        ingredient.setId(id);
+        return ingredient;
+    }
+}
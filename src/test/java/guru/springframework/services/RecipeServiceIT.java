@@ -1,18 +1,29 @@
 package guru.springframework.services;
 
+import guru.springframework.commands.IngredientCommand;
 import guru.springframework.commands.RecipeCommand;
+import guru.springframework.commands.UnitOfMeasureCommand;
 import guru.springframework.converters.RecipeCommandToRecipe;
 import guru.springframework.converters.RecipeToRecipeCommand;
 import guru.springframework.domain.Recipe;
 import guru.springframework.repositories.RecipeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -32,6 +43,15 @@ public class RecipeServiceIT {
     @Autowired
     RecipeToRecipeCommand recipeToRecipeCommand;
 
+    @Autowired
+    IngredientService ingredientService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Transactional
     @Test
     public void testSaveOfDescription() throws Exception {
@@ -50,6 +70,110 @@ public class RecipeServiceIT {
         assertEquals(testRecipe.getCategories().size(), savedRecipeCommand.getCategories().size());
         assertEquals(testRecipe.getIngredients().size(), savedRecipeCommand.getIngredients().size());
     }
+
+    @Transactional
+    @Test
+    public void testSaveFromFormKeepsIngredientsAndCategories() throws Exception {
+        //given
+        Recipe testRecipe = recipeRepository.findAll().iterator().next();
+        int ingredientCount = testRecipe.getIngredients().size();
+        int categoryCount = testRecipe.getCategories().size();
+
+        // the recipe form posts neither ingredients nor categories
+        RecipeCommand formCommand = recipeToRecipeCommand.convert(testRecipe);
+        formCommand.getIngredients().clear();
+        formCommand.getCategories().clear();
+        formCommand.setDescription(NEW_DESCRIPTION);
+
+        //when
+        recipeService.saveRecipeCommand(formCommand);
+        recipeRepository.findAll();
+
+        //then
+        Recipe savedRecipe = recipeRepository.findById(testRecipe.getId()).get();
+        assertEquals(NEW_DESCRIPTION, savedRecipe.getDescription());
+        assertEquals(ingredientCount, savedRecipe.getIngredients().size());
+        assertEquals(categoryCount, savedRecipe.getCategories().size());
+    }
+
+    @Test
+    public void testNewRecipeIsWrittenWithItsFirstVersion() throws Exception {
+        RecipeCommand command = new RecipeCommand();
+        command.setDescription(NEW_DESCRIPTION);
+
+        RecipeCommand savedCommand = recipeService.saveRecipeCommand(command);
+
+        try {
+            Recipe savedRecipe = recipeRepository.findById(savedCommand.getId()).get();
+            // a single insert, the version handed to the client is still the one stored
+            assertEquals(Long.valueOf(0L), savedRecipe.getVersion());
+            assertEquals(savedRecipe.getVersion(), savedCommand.getVersion());
+            assertEquals(savedRecipe.getVersion(), recipeService.findVersionById(savedCommand.getId()));
+            assertNotNull(savedRecipe.getLastModified());
+        } finally {
+            recipeService.deleteById(savedCommand.getId());
+        }
+    }
+
+    @Test
+    public void testFindByIdIsServedFromSecondLevelCache() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long recipeId = recipeRepository.findAll().iterator().next().getId();
+        statistics.clear();
+
+        // each call runs in its own session, the second one finds the recipe in the shared cache
+        recipeRepository.findById(recipeId);
+        recipeRepository.findById(recipeId);
+
+        assertTrue(statistics.getDomainDataRegionStatistics(Recipe.class.getName()).getHitCount() > 0);
+    }
+
+    @Test
+    public void testCachedIngredientsIncludeIngredientSavedOnItsOwn() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long recipeId = recipeRepository.findAll().iterator().next().getId();
+        int ingredientCount = transaction.execute(status ->
+                recipeRepository.findById(recipeId).get().getIngredients().size());
+
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(1L);
+        IngredientCommand command = new IngredientCommand();
+        command.setRecipeId(recipeId);
+        command.setDescription("salt");
+        command.setAmount(BigDecimal.ONE);
+        command.setUnitOfMeasure(uom);
+        IngredientCommand savedCommand = ingredientService.saveIngredientCommand(command);
+
+        try {
+            assertEquals(ingredientCount + 1, (int) transaction.execute(status ->
+                    recipeRepository.findById(recipeId).get().getIngredients().size()));
+        } finally {
+            ingredientService.deleteById(recipeId, savedCommand.getId());
+        }
+    }
+
+    @Test
+    public void testIngredientWritesBumpRecipeVersion() throws Exception {
+        Long recipeId = recipeRepository.findAll().iterator().next().getId();
+        Long version = recipeService.findVersionById(recipeId);
+
+        UnitOfMeasureCommand uom = new UnitOfMeasureCommand();
+        uom.setId(1L);
+        IngredientCommand command = new IngredientCommand();
+        command.setRecipeId(recipeId);
+        command.setDescription("pepper");
+        command.setAmount(BigDecimal.ONE);
+        command.setUnitOfMeasure(uom);
+        IngredientCommand savedCommand = ingredientService.saveIngredientCommand(command);
+
+        Long savedVersion = recipeService.findVersionById(recipeId);
+        assertTrue(savedVersion > version);
+        // the cached entity has to follow, a stale version would fail the next update of the recipe
+        assertEquals(savedVersion, recipeRepository.findById(recipeId).get().getVersion());
+
+        ingredientService.deleteById(recipeId, savedCommand.getId());
+        assertTrue(recipeService.findVersionById(recipeId) > savedVersion);
+    }
 }
 
 // NOTES
@@ -1,19 +1,33 @@
 package guru.springframework.services;
 
+import guru.springframework.commands.KeysetPage;
+import guru.springframework.commands.RecipeCommand;
 import guru.springframework.converters.RecipeCommandToRecipe;
 import guru.springframework.converters.RecipeToRecipeCommand;
+import guru.springframework.domain.ImageMetadata;
+import guru.springframework.domain.Ingredient;
 import guru.springframework.domain.Recipe;
+import guru.springframework.domain.RecipeSummary;
 import guru.springframework.repositories.RecipeRepository;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 /*
 We don't mock the object under test. We mock its dependencies.  Now the service implementation is the object
@@ -35,11 +49,31 @@ public class RecipeServiceImplTest {
     @Mock
     RecipeCommandToRecipe recipeCommandToRecipe;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @Before
     public void setUp(){
         MockitoAnnotations.initMocks(this);
 
-        recipeService = new RecipeServiceImpl(recipeRepository, recipeCommandToRecipe, recipeToRecipeCommand);
+        recipeService = new RecipeServiceImpl(recipeRepository, recipeCommandToRecipe, recipeToRecipeCommand,
+                eventPublisher);
+    }
+
+    @Test
+    public void getRecipeSummariesIn() {
+        RecipeSummary summary = mock(RecipeSummary.class);
+        Page<Long> ids = new PageImpl<>(Arrays.asList(4L, 9L), PageRequest.of(1, 2), 5);
+        when(recipeRepository.findSummariesByIdIn(ids.getContent())).thenReturn(Collections.singletonList(summary));
+
+        Page<RecipeSummary> page = recipeService.getRecipeSummariesIn(ids);
+
+        assertEquals(Collections.singletonList(summary), page.getContent());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(1, page.getNumber());
+
+        recipeService.getRecipeSummariesIn(Page.empty());
+        verify(recipeRepository, times(1)).findSummariesByIdIn(any());
     }
 
     @Test
@@ -59,32 +93,177 @@ public class RecipeServiceImplTest {
         verify(recipeRepository, times(1)).findAll();
     }
 
+    @Test
+    public void getRecipeSummaries() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Page<RecipeSummary> summaries = new PageImpl<>(Collections.singletonList(mock(RecipeSummary.class)));
+
+        when(recipeRepository.findSummaries(pageable)).thenReturn(summaries);
+
+        Page<RecipeSummary> page = recipeService.getRecipeSummaries(pageable);
+
+        assertEquals(1, page.getNumberOfElements());
+        verify(recipeRepository, never()).findAll();
+    }
+
+    @Test
+    public void getRecipeSummariesAfter() {
+        RecipeSummary first = mock(RecipeSummary.class);
+        RecipeSummary second = mock(RecipeSummary.class);
+        when(second.getId()).thenReturn(7L);
+
+        when(recipeRepository.findSummariesAfter(5L, PageRequest.of(0, 2))).thenReturn(Arrays.asList(first, second));
+
+        KeysetPage<RecipeSummary> page = recipeService.getRecipeSummariesAfter(5L, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(Long.valueOf(7L), page.getNextAfter());
+    }
+
+    @Test
+    public void getRecipeSummariesAfterLastPage() {
+        when(recipeRepository.findSummariesAfter(0L, PageRequest.of(0, 100)))
+                .thenReturn(Collections.singletonList(mock(RecipeSummary.class)));
+
+        KeysetPage<RecipeSummary> page = recipeService.getRecipeSummariesAfter(null, 5000);
+
+        assertNull(page.getNextAfter());
+        verify(recipeRepository, times(1)).findSummariesAfter(any(), any());
+    }
+
     @Test
     public void findById(){
         Long id = 1L;
         Recipe recipe = new Recipe();
         recipe.setId(id);
 
-        when(recipeRepository.findById(anyLong())).thenReturn(Optional.of(recipe));
+        when(recipeRepository.findDetailedById(anyLong())).thenReturn(Optional.of(recipe));
 
         Recipe returnedRecipe = recipeService.findById(id);
 
         assertNotNull("Null recipe returned", returnedRecipe);
-        verify(recipeRepository, times(1)).findById(anyLong());
+        verify(recipeRepository, times(1)).findDetailedById(anyLong());
         verify(recipeRepository, never()).findAll();
         assertEquals(id, returnedRecipe.getId());
     }
 
+    @Test
+    public void findWithoutIngredientsById() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+
+        assertSame(recipe, recipeService.findWithoutIngredientsById(1L));
+        verify(recipeRepository, never()).findDetailedById(anyLong());
+    }
+
+    @Test
+    public void saveNewRecipeCommand() {
+        RecipeCommand command = new RecipeCommand();
+        Recipe recipe = new Recipe();
+
+        when(recipeCommandToRecipe.convert(command)).thenReturn(recipe);
+        when(recipeRepository.save(recipe)).thenAnswer(invocation -> {
+            // stamped before the insert, not afterwards through an extra update
+            assertNotNull(recipe.getLastModified());
+            return recipe;
+        });
+
+        recipeService.saveRecipeCommand(command);
+
+        verify(recipeRepository, times(1)).save(recipe);
+        verify(recipeToRecipeCommand, times(1)).convert(recipe);
+    }
+
+    @Test
+    public void saveRecipeCommandEditsManagedRecipe() {
+        RecipeCommand command = new RecipeCommand();
+        Recipe detachedRecipe = new Recipe();
+        detachedRecipe.setId(1L);
+        detachedRecipe.setVersion(2L);
+        detachedRecipe.setDescription("New Description");
+
+        Recipe existingRecipe = new Recipe();
+        existingRecipe.setId(1L);
+        existingRecipe.setVersion(2L);
+        existingRecipe.addIngredient(new Ingredient());
+
+        when(recipeCommandToRecipe.convert(command)).thenReturn(detachedRecipe);
+        when(recipeRepository.findDetailedById(1L)).thenReturn(Optional.of(existingRecipe));
+
+        recipeService.saveRecipeCommand(command);
+
+        assertEquals("New Description", existingRecipe.getDescription());
+        assertEquals(1, existingRecipe.getIngredients().size());
+        assertNotNull(existingRecipe.getLastModified());
+        verify(recipeRepository, never()).save(any());
+        verify(recipeToRecipeCommand, times(1)).convert(existingRecipe);
+        verify(eventPublisher, times(1)).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    @Test
+    public void findCommands() {
+        Recipe tacos = new Recipe();
+        tacos.setId(2L);
+        Recipe guacamole = new Recipe();
+        guacamole.setId(1L);
+        RecipeSummary tacosSummary = mock(RecipeSummary.class);
+        when(tacosSummary.getId()).thenReturn(2L);
+        RecipeSummary guacamoleSummary = mock(RecipeSummary.class);
+        when(guacamoleSummary.getId()).thenReturn(1L);
+
+        PageRequest pageable = PageRequest.of(0, 2);
+        when(recipeRepository.findSummaries(pageable))
+                .thenReturn(new PageImpl<>(Arrays.asList(tacosSummary, guacamoleSummary), pageable, 3));
+        when(recipeRepository.findDetailedByIdIn(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(guacamole, tacos));
+        when(recipeToRecipeCommand.convert(any(Recipe.class))).thenAnswer(invocation -> {
+            RecipeCommand command = new RecipeCommand();
+            command.setId(invocation.<Recipe>getArgument(0).getId());
+            return command;
+        });
+
+        Page<RecipeCommand> page = recipeService.findCommands(pageable);
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(Long.valueOf(2L), page.getContent().get(0).getId());
+        assertEquals(Long.valueOf(1L), page.getContent().get(1).getId());
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void saveStaleRecipeCommand() {
+        RecipeCommand command = new RecipeCommand();
+        Recipe detachedRecipe = new Recipe();
+        detachedRecipe.setId(1L);
+        detachedRecipe.setVersion(1L);
+
+        Recipe existingRecipe = new Recipe();
+        existingRecipe.setId(1L);
+        existingRecipe.setVersion(2L);
+
+        when(recipeCommandToRecipe.convert(command)).thenReturn(detachedRecipe);
+        when(recipeRepository.findDetailedById(1L)).thenReturn(Optional.of(existingRecipe));
+
+        recipeService.saveRecipeCommand(command);
+    }
+
     @Test
     public void deleteById(){
         //given
         Long idToDelete = 2L;
+        ImageMetadata image = new ImageMetadata();
+        image.setStorageKey("2/image");
+        when(recipeRepository.findImageByRecipeId(idToDelete)).thenReturn(Optional.of(image));
+
+        ArgumentCaptor<RecipeDeletedEvent> eventCaptor = ArgumentCaptor.forClass(RecipeDeletedEvent.class);
 
         //when
         recipeService.deleteById(idToDelete);
 
         //then
         verify(recipeRepository, times(1)).deleteById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertEquals(idToDelete, eventCaptor.getValue().getRecipeId());
+        assertEquals("2/image", eventCaptor.getValue().getImageStorageKey());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package guru.springframework.services;
+
+import guru.springframework.commands.UnitOfMeasureCommand;
+import guru.springframework.config.CachingConfig;
+import guru.springframework.domain.UnitOfMeasure;
+import guru.springframework.repositories.UnitOfMeasureRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UnitOfMeasureServiceIT {
+
+    @Autowired
+    UnitOfMeasureService unitOfMeasureService;
+
+    @Autowired
+    UnitOfMeasureRepository unitOfMeasureRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Cache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = cacheManager.getCache(CachingConfig.UNITS_OF_MEASURE);
+        cache.clear();
+    }
+
+    @Test
+    public void listAllUomsIsCached() throws Exception {
+        Set<UnitOfMeasureCommand> uoms = unitOfMeasureService.listAllUoms();
+
+        assertFalse(uoms.isEmpty());
+        assertSame(uoms, unitOfMeasureService.listAllUoms());
+    }
+
+    @Test
+    public void repositoryLookupsAreCached() throws Exception {
+        UnitOfMeasure cup = unitOfMeasureRepository.findByDescription("Cup").get();
+        UnitOfMeasure byId = unitOfMeasureRepository.findById(cup.getId()).get();
+
+        assertNotNull(cache.get("description:Cup"));
+        assertNotNull(cache.get(cup.getId()));
+        assertSame(cup, unitOfMeasureRepository.findByDescription("Cup").get());
+        assertSame(byId, unitOfMeasureRepository.findById(cup.getId()).get());
+    }
+
+    @Transactional
+    @Test
+    public void saveClearsCache() throws Exception {
+        unitOfMeasureService.listAllUoms();
+        unitOfMeasureRepository.findByDescription("Cup");
+
+        UnitOfMeasure uom = new UnitOfMeasure();
+        uom.setDescription("Gallon");
+        unitOfMeasureRepository.save(uom);
+
+        assertNull(cache.get("commands"));
+        assertNull(cache.get("description:Cup"));
+    }
+}
@@ -2,6 +2,7 @@ package guru.springframework.services;
 
 import guru.springframework.commands.UnitOfMeasureCommand;
 import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommand;
+import guru.springframework.converters.UnitOfMeasureToUnitOfMeasureCommandImpl;
 import guru.springframework.domain.UnitOfMeasure;
 import guru.springframework.repositories.UnitOfMeasureRepository;
 import org.junit.Before;
@@ -26,7 +27,7 @@ public class UnitOfMeasureServiceImplTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        this.unitOfMeasureToUnitOfMeasureCommand = spy(UnitOfMeasureToUnitOfMeasureCommand.class);
+        this.unitOfMeasureToUnitOfMeasureCommand = spy(new UnitOfMeasureToUnitOfMeasureCommandImpl());
         service = new UnitOfMeasureServiceImpl(unitOfMeasureRepository, unitOfMeasureToUnitOfMeasureCommand);
     }
 
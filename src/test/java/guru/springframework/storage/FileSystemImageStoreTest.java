@@ -0,0 +1,60 @@
+package guru.springframework.storage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class FileSystemImageStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    FileSystemImageStore imageStore;
+
+    @Before
+    public void setUp() throws Exception {
+        imageStore = new FileSystemImageStore(folder.getRoot().getAbsolutePath());
+    }
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        byte[] bytes = "Spring Framework Guru".getBytes();
+
+        long written = imageStore.store("1/image", new ByteArrayInputStream(bytes), bytes.length);
+
+        assertEquals(bytes.length, written);
+        Resource resource = imageStore.load("1/image");
+        assertNotNull(resource);
+        assertEquals(bytes.length, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(bytes, StreamUtils.copyToByteArray(in));
+        }
+    }
+
+    @Test
+    public void loadMissingKey() throws Exception {
+        assertNull(imageStore.load("1/missing"));
+    }
+
+    @Test
+    public void delete() throws Exception {
+        imageStore.store("1/image", new ByteArrayInputStream(new byte[]{1, 2, 3}), 3);
+
+        imageStore.delete("1/image");
+
+        assertNull(imageStore.load("1/image"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsKeysOutsideRoot() throws Exception {
+        imageStore.load("../outside");
+    }
+}
@@ -0,0 +1,103 @@
+package guru.springframework.storage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class ThumbnailGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    ImageStore imageStore;
+
+    ThumbnailGenerator thumbnailGenerator;
+
+    @Before
+    public void setUp() throws Exception {
+        imageStore = new FileSystemImageStore(folder.getRoot().getAbsolutePath());
+        thumbnailGenerator = new ThumbnailGenerator(imageStore, new int[]{100, 400});
+    }
+
+    @Test
+    public void createThumbnails() throws Exception {
+        //given
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB), "png", png);
+        imageStore.store("1/image", new ByteArrayInputStream(png.toByteArray()), png.size());
+
+        //when
+        thumbnailGenerator.createThumbnails("1/image");
+
+        //then
+        BufferedImage small = read("1/image-100");
+        assertEquals(100, small.getWidth());
+        assertEquals(50, small.getHeight());
+
+        BufferedImage large = read("1/image-400");
+        assertEquals(400, large.getWidth());
+        assertEquals(200, large.getHeight());
+    }
+
+    @Test
+    public void createThumbnailsNeverScalesUp() throws Exception {
+        //given
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(60, 30, BufferedImage.TYPE_INT_RGB), "png", png);
+        imageStore.store("1/image", new ByteArrayInputStream(png.toByteArray()), png.size());
+
+        //when
+        thumbnailGenerator.createThumbnails("1/image");
+
+        //then
+        assertEquals(60, read("1/image-400").getWidth());
+    }
+
+    @Test
+    public void createThumbnailsIgnoresNonImages() throws Exception {
+        //given
+        byte[] text = "Spring Framework Guru".getBytes();
+        imageStore.store("1/image", new ByteArrayInputStream(text), text.length);
+
+        //when
+        thumbnailGenerator.createThumbnails("1/image");
+
+        //then
+        assertNull(imageStore.load("1/image-100"));
+    }
+
+    @Test
+    public void deleteThumbnails() throws Exception {
+        //given
+        imageStore.store("1/image-100", new ByteArrayInputStream(new byte[]{1}), 1);
+        imageStore.store("1/image-400", new ByteArrayInputStream(new byte[]{1}), 1);
+
+        //when
+        thumbnailGenerator.deleteThumbnails("1/image");
+
+        //then
+        assertNull(imageStore.load("1/image-100"));
+        assertNull(imageStore.load("1/image-400"));
+    }
+
+    @Test
+    public void supportsSize() {
+        assertTrue(thumbnailGenerator.supportsSize(100));
+        assertFalse(thumbnailGenerator.supportsSize(200));
+    }
+
+    private BufferedImage read(String key) throws Exception {
+        try (InputStream in = imageStore.load(key).getInputStream()) {
+            return ImageIO.read(in);
+        }
+    }
+}
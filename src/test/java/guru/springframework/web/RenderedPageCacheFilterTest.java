@@ -0,0 +1,128 @@
+package guru.springframework.web;
+
+import guru.springframework.config.CachingConfig;
+import guru.springframework.services.RecipeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RenderedPageCacheFilterTest {
+
+    @Mock
+    RecipeService recipeService;
+
+    RenderedPageCacheFilter filter;
+
+    int renders;
+
+    Object version;
+
+    HttpServlet page = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            renders++;
+            version = request.getAttribute(RenderedPageCacheFilter.RECIPE_VERSION_ATTRIBUTE);
+            response.setHeader("ETag", "\"1-0\"");
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write("<html>render " + renders + "</html>");
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(recipeService.findVersionById(anyLong())).thenReturn(0L);
+
+        renders = 0;
+        filter = new RenderedPageCacheFilter(new ConcurrentMapCacheManager(CachingConfig.RENDERED_PAGES),
+                recipeService);
+    }
+
+    @Test
+    public void servesRenderedPageFromCache() throws Exception {
+        assertEquals("<html>render 1</html>", get("/recipe/1/show").getContentAsString());
+
+        MockHttpServletResponse cached = get("/recipe/1/show");
+
+        assertEquals("<html>render 1</html>", cached.getContentAsString());
+        assertEquals("text/html;charset=UTF-8", cached.getContentType());
+        assertEquals(1, renders);
+        verify(recipeService, times(2)).findVersionById(1L);
+    }
+
+    @Test
+    public void passesVersionToRenderedPage() throws Exception {
+        when(recipeService.findVersionById(1L)).thenReturn(5L);
+
+        get("/recipe/1/ingredients");
+
+        assertEquals(5L, version);
+        verify(recipeService, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    public void recipeChangeRendersAgain() throws Exception {
+        get("/recipe/1/ingredients");
+        get("/recipe/2/ingredients");
+
+        when(recipeService.findVersionById(1L)).thenReturn(1L);
+
+        assertEquals("<html>render 3</html>", get("/recipe/1/ingredients").getContentAsString());
+        assertEquals("<html>render 2</html>", get("/recipe/2/ingredients").getContentAsString());
+    }
+
+    @Test
+    public void cachedPageAnswersConditionalRequest() throws Exception {
+        get("/recipe/1/show");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/recipe/1/show");
+        request.addHeader("If-None-Match", "\"1-0\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(page));
+
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+        assertEquals(1, renders);
+    }
+
+    @Test
+    public void missingRecipeIsNotCached() throws Exception {
+        when(recipeService.findVersionById(9L)).thenReturn(null);
+
+        get("/recipe/9/show");
+        get("/recipe/9/show");
+
+        assertEquals(2, renders);
+    }
+
+    @Test
+    public void otherPagesAreNotCached() throws Exception {
+        get("/recipe/1/update");
+        get("/recipe/1/update");
+
+        assertEquals(2, renders);
+    }
+
+    private MockHttpServletResponse get(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(page));
+        return response;
+    }
+}